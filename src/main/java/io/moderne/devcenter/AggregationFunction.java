@@ -16,22 +16,26 @@
 package io.moderne.devcenter;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import io.moderne.devcenter.internal.HyperLogLog;
+import io.moderne.devcenter.internal.NumericValues;
+import io.moderne.devcenter.internal.QuantileSketch;
 import org.jspecify.annotations.Nullable;
 
-import java.util.Comparator;
 import java.util.DoubleSummaryStatistics;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 
 /**
  * Reduces the per-row values of a column, drawn from the rows of an upstream
  * data table for a single repository, to a single representative value that the
  * {@link BucketedMetricCard} then assigns to a {@link Bucket}.
  * <p>
- * The input list has one entry per row in the upstream data table for this
- * repository. Entries may be {@code null} when the row's value for the target
- * column is missing. Numeric aggregations skip {@code null} and non-numeric
- * entries; {@link #COUNT} and {@link #UNIQUE} operate on the raw entries.
+ * Values are fed one row at a time to an {@link Accumulator}, so no function needs
+ * to hold on to the rows themselves. Values may be {@code null} when the row's value
+ * for the target column is missing. Numeric aggregations skip {@code null}, NaN and
+ * non-numeric values; {@link #COUNT}, {@link #UNIQUE} and {@link #APPROXIMATE_UNIQUE}
+ * operate on the raw values.
  * <p>
  * A function returns {@code null} to signal "no meaningful result"; the card
  * skips inserting a row for the repository in that case.
@@ -40,46 +44,82 @@ public enum AggregationFunction {
 
     MIN {
         @Override
-        public @Nullable Double apply(List<?> values) {
-            return values.stream()
-                    .map(AggregationFunction::toDouble)
-                    .filter(Objects::nonNull)
-                    .min(Comparator.naturalOrder())
-                    .orElse(null);
+        public Accumulator newAccumulator() {
+            return new NumericAccumulator() {
+                double min;
+
+                @Override
+                void acceptNumber(double value) {
+                    if (count == 1 || Double.compare(value, min) < 0) {
+                        min = value;
+                    }
+                }
+
+                @Override
+                public @Nullable Double result() {
+                    return count == 0 ? null : min;
+                }
+            };
         }
     },
 
     MAX {
         @Override
-        public @Nullable Double apply(List<?> values) {
-            return values.stream()
-                    .map(AggregationFunction::toDouble)
-                    .filter(Objects::nonNull)
-                    .max(Comparator.naturalOrder())
-                    .orElse(null);
+        public Accumulator newAccumulator() {
+            return new NumericAccumulator() {
+                double max;
+
+                @Override
+                void acceptNumber(double value) {
+                    if (count == 1 || Double.compare(value, max) > 0) {
+                        max = value;
+                    }
+                }
+
+                @Override
+                public @Nullable Double result() {
+                    return count == 0 ? null : max;
+                }
+            };
         }
     },
 
     SUM {
         @Override
-        public @Nullable Double apply(List<?> values) {
-            return values.stream()
-                    .map(AggregationFunction::toDouble)
-                    .filter(Objects::nonNull)
-                    .reduce(Double::sum)
-                    .orElse(null);
+        public Accumulator newAccumulator() {
+            return new NumericAccumulator() {
+                double sum;
+
+                @Override
+                void acceptNumber(double value) {
+                    sum += value;
+                }
+
+                @Override
+                public @Nullable Double result() {
+                    return count == 0 ? null : sum;
+                }
+            };
         }
     },
 
     AVERAGE {
         @Override
-        public @Nullable Double apply(List<?> values) {
-            DoubleSummaryStatistics stats = values.stream()
-                    .map(AggregationFunction::toDouble)
-                    .filter(Objects::nonNull)
-                    .mapToDouble(Double::doubleValue)
-                    .summaryStatistics();
-            return stats.getCount() == 0 ? null : stats.getAverage();
+        public Accumulator newAccumulator() {
+            return new NumericAccumulator() {
+                // Compensated summation, the same as the average of a DoubleStream
+                final DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+
+                @Override
+                void acceptNumber(double value) {
+                    stats.accept(value);
+                }
+
+                @Override
+                public @Nullable Double result() {
+                    return count == 0 ? null : stats.getAverage();
+                }
+            };
         }
     },
 
@@ -91,8 +131,25 @@ public enum AggregationFunction {
      */
     COUNT {
         @Override
-        public Double apply(List<?> values) {
-            return (double) values.size();
+        public Accumulator newAccumulator() {
+            return new Accumulator() {
+                long count;
+
+                @Override
+                public void accept(double value) {
+                    count++;
+                }
+
+                @Override
+                public void accept(@Nullable Object value) {
+                    count++;
+                }
+
+                @Override
+                public Double result() {
+                    return (double) count;
+                }
+            };
         }
     },
 
@@ -102,19 +159,167 @@ public enum AggregationFunction {
      */
     UNIQUE {
         @Override
-        public Double apply(List<?> values) {
-            return (double) values.stream()
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .count();
+        public Accumulator newAccumulator() {
+            return new Accumulator() {
+                final Set<Object> distinct = new HashSet<>();
+
+                @Override
+                public void accept(double value) {
+                    distinct.add(value);
+                }
+
+                @Override
+                public void accept(@Nullable Object value) {
+                    if (value != null) {
+                        distinct.add(value);
+                    }
+                }
+
+                @Override
+                public Double result() {
+                    return (double) distinct.size();
+                }
+            };
+        }
+    },
+
+    /**
+     * Estimated median of the numeric values, see {@link QuantileSketch} for its accuracy.
+     */
+    MEDIAN {
+        @Override
+        public Accumulator newAccumulator() {
+            return new QuantileAccumulator(0.5);
+        }
+    },
+
+    /**
+     * Estimated 90th percentile of the numeric values.
+     */
+    P90 {
+        @Override
+        public Accumulator newAccumulator() {
+            return new QuantileAccumulator(0.9);
+        }
+    },
+
+    /**
+     * Estimated 99th percentile of the numeric values.
+     */
+    P99 {
+        @Override
+        public Accumulator newAccumulator() {
+            return new QuantileAccumulator(0.99);
+        }
+    },
+
+    /**
+     * Estimated number of distinct non-null values of the configured column, for
+     * columns with too many values for {@link #UNIQUE} to hold them all. Memory is
+     * fixed regardless of the number of rows, see {@link HyperLogLog} for its accuracy.
+     */
+    APPROXIMATE_UNIQUE {
+        @Override
+        public Accumulator newAccumulator() {
+            return new Accumulator() {
+                final HyperLogLog distinct = new HyperLogLog();
+
+                @Override
+                public void accept(double value) {
+                    distinct.add(value);
+                }
+
+                @Override
+                public void accept(@Nullable Object value) {
+                    if (value != null) {
+                        distinct.add(value);
+                    }
+                }
+
+                @Override
+                public Double result() {
+                    return (double) distinct.estimate();
+                }
+            };
         }
     };
 
+    /**
+     * @return A new accumulator that reduces the values of one repository.
+     */
+    public abstract Accumulator newAccumulator();
+
     /**
      * Reduce the per-row values of a column to a single representative value,
      * or {@code null} if no meaningful result can be produced.
      */
-    public abstract @Nullable Double apply(List<?> values);
+    public @Nullable Double apply(List<?> values) {
+        Accumulator accumulator = newAccumulator();
+        for (Object value : values) {
+            accumulator.accept(value);
+        }
+        return accumulator.result();
+    }
+
+    /**
+     * Reduces a column's values as they are read, one row at a time.
+     */
+    public interface Accumulator {
+        void accept(double value);
+
+        /**
+         * @param value The raw value of the column in a row, which may be {@code null} or non-numeric.
+         */
+        void accept(@Nullable Object value);
+
+        /**
+         * @return The reduced value, or {@code null} if no meaningful result can be produced.
+         */
+        @Nullable
+        Double result();
+    }
+
+    private abstract static class NumericAccumulator implements Accumulator {
+        /**
+         * The number of numeric values accepted so far, including the current one.
+         */
+        long count;
+
+        abstract void acceptNumber(double value);
+
+        @Override
+        public void accept(double value) {
+            count++;
+            acceptNumber(value);
+        }
+
+        @Override
+        public void accept(@Nullable Object value) {
+            double d = NumericValues.toDouble(value);
+            if (!Double.isNaN(d)) {
+                accept(d);
+            }
+        }
+    }
+
+    private static class QuantileAccumulator extends NumericAccumulator {
+        private final QuantileSketch sketch = new QuantileSketch();
+        private final double quantile;
+
+        QuantileAccumulator(double quantile) {
+            this.quantile = quantile;
+        }
+
+        @Override
+        void acceptNumber(double value) {
+            sketch.add(value);
+        }
+
+        @Override
+        public @Nullable Double result() {
+            return sketch.quantile(quantile);
+        }
+    }
 
     /**
      * Case-insensitive lookup used by Jackson when deserializing this enum
@@ -132,20 +337,7 @@ public enum AggregationFunction {
             }
         }
         throw new IllegalArgumentException(
-                "Unknown aggregation: \"" + value + "\". Expected one of MIN, MAX, SUM, AVERAGE, COUNT, UNIQUE.");
-    }
-
-    private static @Nullable Double toDouble(@Nullable Object o) {
-        if (o instanceof Number) {
-            return ((Number) o).doubleValue();
-        }
-        if (o instanceof String) {
-            try {
-                return Double.parseDouble((String) o);
-            } catch (NumberFormatException ignored) {
-                return null;
-            }
-        }
-        return null;
+                "Unknown aggregation: \"" + value + "\". Expected one of MIN, MAX, SUM, AVERAGE, COUNT, UNIQUE, " +
+                "MEDIAN, P90, P99, APPROXIMATE_UNIQUE.");
     }
 }
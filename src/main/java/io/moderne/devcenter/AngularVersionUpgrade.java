@@ -15,6 +15,7 @@
  */
 package io.moderne.devcenter;
 
+import io.moderne.devcenter.internal.VersionNumbers;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -27,8 +28,6 @@ import org.openrewrite.javascript.marker.NodeResolutionResult.Dependency;
 import org.openrewrite.javascript.marker.NodeResolutionResult.ResolvedDependency;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
@@ -38,8 +37,16 @@ import static java.util.stream.Collectors.toList;
 public class AngularVersionUpgrade extends UpgradeMigrationCard {
 
     private static final String ANGULAR_CORE = "@angular/core";
-    private static final Pattern VERSION_PATTERN =
-            Pattern.compile("(?:>=|[~^]|>)?\\s*v?(\\d+)");
+    /**
+     * The measures of a repository that lags behind the target, from the largest lag down.
+     */
+    private static final Measure[] LAG_MEASURES = {
+            Measure.Lag10PlusMajors, Measure.Lag5to9Majors, Measure.Lag2to4Majors, Measure.Lag1Major};
+
+    /**
+     * The smallest lag, in major versions, of each of the {@link #LAG_MEASURES}.
+     */
+    private static final int[] LAG_THRESHOLDS = Stream.of(LAG_MEASURES).mapToInt(Measure::getMinimumLag).toArray();
 
     @Option(displayName = "Major version",
             description = "The major version of Angular to upgrade to.",
@@ -115,25 +122,18 @@ public class AngularVersionUpgrade extends UpgradeMigrationCard {
         if (constraint == null) {
             return -1;
         }
-        Matcher m = VERSION_PATTERN.matcher(constraint);
-        return m.find() ? Integer.parseInt(m.group(1)) : -1;
+        long version = VersionNumbers.find(constraint, false);
+        return version == VersionNumbers.NONE ? -1 : VersionNumbers.major(version);
     }
 
     static Measure bucketFor(int actualVersion, int targetVersion) {
         int lag = targetVersion - actualVersion;
-        if (lag <= 0) {
-            return Measure.Completed;
-        }
-        if (lag >= 10) {
-            return Measure.Lag10PlusMajors;
-        }
-        if (lag >= 5) {
-            return Measure.Lag5to9Majors;
-        }
-        if (lag >= 2) {
-            return Measure.Lag2to4Majors;
+        for (int i = 0; i < LAG_THRESHOLDS.length; i++) {
+            if (lag >= LAG_THRESHOLDS[i]) {
+                return LAG_MEASURES[i];
+            }
         }
-        return Measure.Lag1Major;
+        return Measure.Completed;
     }
 
     @Override
@@ -23,6 +23,9 @@ import lombok.ToString;
 import org.intellij.lang.annotations.Language;
 import org.jspecify.annotations.Nullable;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 /**
  * One bucket in a {@link BucketedMetricCard}'s configuration: a display
  * {@link #name} paired with an inclusive lower bound {@link #moreThan}.
@@ -68,4 +71,74 @@ public class Bucket {
         }
         return selected;
     }
+
+    /**
+     * Matches values to buckets by a binary search of their lower bounds, which are
+     * sorted once when compiled. The result is the same as {@link #match(double, Bucket[])}.
+     */
+    public static final class Matcher {
+        /**
+         * The distinct lower bounds in ascending order.
+         */
+        private final double[] thresholds;
+
+        /**
+         * The position in the configured list of the bucket for each threshold.
+         */
+        private final int[] positions;
+
+        private Matcher(double[] thresholds, int[] positions) {
+            this.thresholds = thresholds;
+            this.positions = positions;
+        }
+
+        public static Matcher compile(Bucket[] buckets) {
+            Integer[] order = new Integer[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                order[i] = i;
+            }
+            // Stable, so of the buckets that share a lower bound the first one configured wins.
+            Arrays.sort(order, Comparator.comparingDouble(i -> buckets[i].getMoreThan().doubleValue()));
+
+            double[] thresholds = new double[buckets.length];
+            int[] positions = new int[buckets.length];
+            int n = 0;
+            for (int i : order) {
+                double lowerBound = buckets[i].getMoreThan().doubleValue();
+                if (n > 0 && Double.compare(thresholds[n - 1], lowerBound) == 0) {
+                    continue;
+                }
+                thresholds[n] = lowerBound;
+                positions[n++] = i;
+            }
+            return new Matcher(Arrays.copyOf(thresholds, n), Arrays.copyOf(positions, n));
+        }
+
+        /**
+         * @return The position of the matching bucket in the configured list, which is also
+         * its measure ordinal, or {@code -1} if no bucket applies.
+         */
+        public int match(double value) {
+            if (thresholds.length == 0) {
+                return -1;
+            }
+            if (Double.isNaN(value)) {
+                // NaN is below no lower bound, so the largest one applies.
+                return positions[thresholds.length - 1];
+            }
+            int low = 0;
+            int high = thresholds.length - 1;
+            int matched = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] <= value) {
+                    matched = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return matched < 0 ? -1 : positions[matched];
+        }
+    }
 }
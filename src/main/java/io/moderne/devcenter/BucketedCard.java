@@ -0,0 +1,286 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter;
+
+import io.moderne.devcenter.internal.ColumnAccessor;
+import lombok.Value;
+import org.intellij.lang.annotations.Language;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * A DevCenter card whose measures are a fixed set of {@link Bucket buckets} of a numeric
+ * column of a previously-emitted data table.
+ * <p>
+ * The card is intended to run after a data-table-producing recipe in the same recipe list.
+ * Reading the upstream data table is deferred to cycle 2 so that it is fully populated for
+ * this repository before we read it. Cycle 1's visitor only pings {@link DevCenter#CYCLE_TRIGGER}
+ * so the scheduler enrolls us for cycle 2 even when no recipe in the list edits any source
+ * files. With {@link #getAggregateAtEndOfRun()}, the table is instead read in
+ * {@link #onComplete(ExecutionContext)}, so the card doesn't force a second cycle.
+ * <p>
+ * Cards that share an input data table, whatever their kind, are fed from a single pass over
+ * that table's rows.
+ *
+ * @param <S> The card's state while the rows of its input data table are read.
+ */
+public abstract class BucketedCard<S extends BucketedCard.ColumnScan> extends UpgradeMigrationCard {
+
+    /**
+     * Built on first use, since the buckets never change.
+     */
+    private final transient AtomicReference<@Nullable List<DevCenterMeasure>> measures = new AtomicReference<>();
+
+    private final transient AtomicReference<Bucket.@Nullable Matcher> matcher = new AtomicReference<>();
+
+    public abstract String getInputDataTable();
+
+    public abstract String getCardName();
+
+    public abstract String getColumn();
+
+    public abstract Bucket[] getBuckets();
+
+    public abstract @Nullable Boolean getAggregateAtEndOfRun();
+
+    /**
+     * @return A new scan of the card's column, which is fed every row of the input data table.
+     */
+    protected abstract S newScan();
+
+    /**
+     * Emit the card's rows once every row of the input data table has been scanned.
+     */
+    protected abstract void report(ExecutionContext ctx, S scan);
+
+    @Override
+    public String getInstanceName() {
+        return getCardName();
+    }
+
+    @Override
+    public @Nullable String getFixRecipeId() {
+        return null;
+    }
+
+    @Override
+    public boolean causesAnotherCycle() {
+        return !Boolean.TRUE.equals(getAggregateAtEndOfRun());
+    }
+
+    @Override
+    public void onComplete(ExecutionContext ctx) {
+        if (Boolean.TRUE.equals(getAggregateAtEndOfRun())) {
+            // Every cycle is over, so the upstream data table is fully populated.
+            aggregate(ctx, sharedScan(ctx));
+        }
+        super.onComplete(ctx);
+    }
+
+    @Override
+    public List<DevCenterMeasure> getMeasures() {
+        List<DevCenterMeasure> m = measures.get();
+        if (m == null) {
+            Bucket[] buckets = getBuckets();
+            List<DevCenterMeasure> bucketMeasures = new ArrayList<>(buckets.length);
+            for (int i = 0; i < buckets.length; i++) {
+                bucketMeasures.add(new BucketMeasure(buckets[i].getName(), i));
+            }
+            m = unmodifiableList(bucketMeasures);
+            measures.set(m);
+        }
+        return m;
+    }
+
+    @Override
+    public int ordinal(DevCenterMeasure measure) {
+        if (measure instanceof BucketMeasure) {
+            return ((BucketMeasure) measure).getOrdinal();
+        }
+        return super.ordinal(measure);
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public Tree preVisit(Tree tree, ExecutionContext ctx) {
+                stopAfterPreVisit();
+                SharedScan scan = sharedScan(ctx);
+                if (Boolean.TRUE.equals(getAggregateAtEndOfRun())) {
+                    return tree;
+                }
+                if (ctx.getCycle() == 1) {
+                    // Defer reading the upstream data table until cycle 2 so it is fully
+                    // populated. Ping CYCLE_TRIGGER so the scheduler enrolls us for another
+                    // cycle even if no other recipe in this list edits any source.
+                    ctx.putMessage(DevCenter.CYCLE_TRIGGER, true);
+                    return tree;
+                }
+                aggregate(ctx, scan);
+                return tree;
+            }
+        };
+    }
+
+    protected Bucket.Matcher matcher() {
+        Bucket.Matcher m = matcher.get();
+        if (m == null) {
+            m = Bucket.Matcher.compile(getBuckets());
+            matcher.set(m);
+        }
+        return m;
+    }
+
+    private SharedScan sharedScan(ExecutionContext ctx) {
+        SharedScan scan = ctx.computeMessageIfAbsent(
+                BucketedCard.class.getName() + ".scan." + getInputDataTable(),
+                k -> new SharedScan());
+        scan.register(this);
+        return scan;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void aggregate(ExecutionContext ctx, SharedScan scan) {
+        AtomicBoolean inserted = ctx.computeMessageIfAbsent(
+                getClass().getName() + ".inserted." + getCardName(),
+                k -> new AtomicBoolean(false));
+        if (!inserted.compareAndSet(false, true)) {
+            return;
+        }
+        report(ctx, (S) scan.scan(this, ctx));
+    }
+
+    /**
+     * Cards that read the same input data table register here in cycle 1. The first of
+     * them to aggregate then reads the table's rows once on behalf of all of them, rather
+     * than each card scanning the table on its own.
+     */
+    private static class SharedScan {
+        private final Set<BucketedCard<?>> cards = new LinkedHashSet<>();
+        private final Map<BucketedCard<?>, ColumnScan> results = new HashMap<>();
+
+        synchronized void register(BucketedCard<?> card) {
+            cards.add(card);
+        }
+
+        synchronized ColumnScan scan(BucketedCard<?> card, ExecutionContext ctx) {
+            if (!results.containsKey(card)) {
+                cards.add(card);
+                Map<BucketedCard<?>, ColumnScan> columns = new LinkedHashMap<>();
+                for (BucketedCard<?> c : cards) {
+                    if (!results.containsKey(c)) {
+                        columns.put(c, c.newScan());
+                    }
+                }
+
+                InputDataTables inputs = InputDataTables.get(ctx);
+                List<DataTable<?>> tables = inputs.tables(card.getInputDataTable());
+                long rowsRead = 0;
+                for (DataTable<?> table : tables) {
+                    // Streamed straight out of the store, so that no rows are held on to while aggregating.
+                    Iterator<?> rows = inputs.rows(table);
+                    while (rows.hasNext()) {
+                        Object row = rows.next();
+                        rowsRead++;
+                        for (ColumnScan scan : columns.values()) {
+                            scan.acceptRow(row);
+                        }
+                    }
+                }
+                for (ColumnScan scan : columns.values()) {
+                    scan.tablesRead = tables.size();
+                    scan.rowsRead = rowsRead;
+                }
+                results.putAll(columns);
+            }
+            return results.get(card);
+        }
+    }
+
+    @Value
+    public static class BucketMeasure implements DevCenterMeasure {
+        @Language("markdown")
+        String name;
+
+        int ordinal;
+
+        @Override
+        public int ordinal() {
+            return ordinal;
+        }
+
+        @Override
+        @Language("markdown")
+        public String getDescription() {
+            return "Aggregated column value falls within the \"" + name + "\" bucket.";
+        }
+    }
+
+    /**
+     * Feeds the value of one column of each row of the input data table to a card.
+     */
+    protected abstract static class ColumnScan {
+        private final String column;
+
+        private @Nullable Class<?> rowClass;
+        private ColumnAccessor accessor;
+
+        /**
+         * The number of data tables, one per group, that were read.
+         */
+        protected int tablesRead;
+
+        /**
+         * The number of rows that were read.
+         */
+        protected long rowsRead;
+
+        protected ColumnScan(String column) {
+            this.column = column;
+        }
+
+        /**
+         * @param value The raw value of the column in a row, which may be {@code null} or non-numeric.
+         */
+        protected abstract void accept(@Nullable Object value);
+
+        void acceptRow(Object row) {
+            // Rows of a data table are all the same class, so this resolves once.
+            if (row.getClass() != rowClass) {
+                rowClass = row.getClass();
+                accessor = ColumnAccessor.of(rowClass, column);
+            }
+            accept(accessor.get(row));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import io.moderne.devcenter.internal.NumericValues;
+import io.moderne.devcenter.table.BucketCounts;
+import io.moderne.devcenter.table.MetricCardScans;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+
+import java.util.List;
+
+/**
+ * A DevCenter card that reports the distribution of a numeric column of a
+ * previously-emitted data table across a fixed set of buckets. Where
+ * {@link BucketedMetricCard} reduces a repository to the one bucket of an
+ * aggregate, this card assigns every row to a {@link Bucket} and counts the rows
+ * in each, all in a single pass over the upstream data table.
+ * <p>
+ * Like the security card, the card is aggregated per occurrence: the counts are
+ * emitted to the {@link BucketCounts} data table and summed across the repositories
+ * of an organization, rather than each repository contributing one measure.
+ * <p>
+ * See {@link BucketedCard} for when the upstream data table is read. A histogram card
+ * and metric cards that read the same data table share one pass over its rows.
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+@AllArgsConstructor(onConstructor_ = @JsonCreator)
+public class BucketedHistogramCard extends BucketedCard<BucketedHistogramCard.BucketCounter> {
+
+    @Option(displayName = "Input data table",
+            description = "The fully qualified class name of the data table to read rows from. " +
+                          "This data table is expected to be populated by another recipe earlier in the same recipe list.",
+            example = "io.moderne.organizations.table.ClassMaintainability")
+    String inputDataTable;
+
+    @Option(displayName = "Card name",
+            description = "The display name of this DevCenter card.",
+            example = "Class maintainability")
+    String cardName;
+
+    @Option(displayName = "Column",
+            description = "The numeric column of the input data table whose values are counted into buckets. " +
+                          "Rows without a numeric value in this column are not counted.",
+            example = "maintainabilityIndex")
+    String column;
+
+    @Option(displayName = "Buckets",
+            description = "Ordered list of buckets. Each bucket has a `name` and an inclusive lower " +
+                          "bound `moreThan` — a value is counted in the bucket when `value >= moreThan`. " +
+                          "When multiple buckets apply, the one with the largest `moreThan` wins. The list " +
+                          "order defines the DevCenter measure ordinal: the first bucket maps to ordinal `0`, " +
+                          "the last to ordinal `size - 1`.",
+            example = "[{\"name\": \"F\", \"moreThan\": 0}, " +
+                      "{\"name\": \"C\", \"moreThan\": 10}, " +
+                      "{\"name\": \"A\", \"moreThan\": 20}]")
+    Bucket[] buckets;
+
+    @Option(displayName = "Aggregate at end of run",
+            description = "Count once the whole run is complete rather than in a second recipe cycle. " +
+                          "This saves a second traversal of every source file when no other recipe in the " +
+                          "run needs another cycle.",
+            required = false)
+    @Nullable
+    Boolean aggregateAtEndOfRun;
+
+    @Option(displayName = "Emit card scans",
+            description = "Also emit how many tables and rows of the input data table were read to the " +
+                          "`MetricCardScans` data table.",
+            required = false)
+    @Nullable
+    Boolean emitCardScans;
+
+    String displayName = "DevCenter histogram card from a data table column";
+
+    String description = "Read rows from a previously emitted data table and count how many of the rows for this " +
+            "repository fall into each bucket of a numeric column.";
+
+    @Getter(AccessLevel.NONE)
+    transient BucketCounts bucketCounts = new BucketCounts(this);
+
+    @Getter(AccessLevel.NONE)
+    transient MetricCardScans metricCardScans = new MetricCardScans(this);
+
+    /**
+     * A card that counts in a second recipe cycle.
+     */
+    public BucketedHistogramCard(String inputDataTable, String cardName, String column, Bucket[] buckets) {
+        this(inputDataTable, cardName, column, buckets, null, null);
+    }
+
+    /**
+     * A card that doesn't emit card scans.
+     */
+    public BucketedHistogramCard(String inputDataTable, String cardName, String column, Bucket[] buckets,
+                                 @Nullable Boolean aggregateAtEndOfRun) {
+        this(inputDataTable, cardName, column, buckets, aggregateAtEndOfRun, null);
+    }
+
+    @Override
+    public DevCenter.Aggregation getCardAggregation() {
+        return DevCenter.Aggregation.PER_OCCURRENCE;
+    }
+
+    @Override
+    protected BucketCounter newScan() {
+        return new BucketCounter(column, matcher(), buckets.length);
+    }
+
+    @Override
+    protected void report(ExecutionContext ctx, BucketCounter counter) {
+        if (Boolean.TRUE.equals(emitCardScans)) {
+            metricCardScans.insertRow(ctx, new MetricCardScans.Row(
+                    cardName, inputDataTable, counter.tablesRead, counter.rowsRead));
+        }
+        List<DevCenterMeasure> bucketMeasures = getMeasures();
+        for (int i = 0; i < counter.counts.length; i++) {
+            if (counter.counts[i] > 0) {
+                bucketCounts.insertRow(ctx, new BucketCounts.Row(cardName, i, bucketMeasures.get(i).getName(), counter.counts[i]));
+            }
+        }
+    }
+
+    /**
+     * Counts the numeric column value of each row into the bucket it falls in.
+     */
+    static class BucketCounter extends ColumnScan {
+        private final Bucket.Matcher matcher;
+        private final int[] counts;
+
+        BucketCounter(String column, Bucket.Matcher matcher, int buckets) {
+            super(column);
+            this.matcher = matcher;
+            this.counts = new int[buckets];
+        }
+
+        @Override
+        protected void accept(@Nullable Object value) {
+            double d = NumericValues.toDouble(value);
+            if (Double.isNaN(d)) {
+                return;
+            }
+            int ordinal = matcher.match(d);
+            if (ordinal >= 0) {
+                counts[ordinal]++;
+            }
+        }
+    }
+}
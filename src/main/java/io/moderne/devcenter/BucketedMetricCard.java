@@ -15,23 +15,17 @@
  */
 package io.moderne.devcenter;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import io.moderne.devcenter.table.MetricAggregates;
+import io.moderne.devcenter.table.MetricCardScans;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Value;
-import org.intellij.lang.annotations.Language;
 import org.jspecify.annotations.Nullable;
-import org.openrewrite.Column;
-import org.openrewrite.DataTable;
-import org.openrewrite.DataTableExecutionContextView;
-import org.openrewrite.DataTableStore;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
-import org.openrewrite.Tree;
-import org.openrewrite.TreeVisitor;
-
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A DevCenter upgrade/migration card that bins a repository into one of a fixed
@@ -42,18 +36,15 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *   <li>An {@link AggregationFunction} reduces the values of the configured
  *       {@link #column} across all rows of the upstream data table to a single
  *       representative value.</li>
- *   <li>That value is then assigned to a {@link Bucket} using
- *       {@link Bucket#match(double, Bucket[])}.</li>
+ *   <li>That value is then assigned to a {@link Bucket} using a
+ *       {@link Bucket.Matcher} compiled once from the buckets.</li>
  * </ol>
- * The card is intended to run after a data-table-producing recipe in the same
- * recipe list. Aggregation is deferred to cycle 2 so the upstream data table is
- * fully populated for this repository before we read it. Cycle 1's visitor only
- * pings {@link DevCenter#CYCLE_TRIGGER} so the scheduler enrolls us for cycle 2
- * even when no recipe in the list edits any source files.
+ * See {@link BucketedCard} for when the upstream data table is read.
  */
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class BucketedMetricCard extends UpgradeMigrationCard {
+@AllArgsConstructor(onConstructor_ = @JsonCreator)
+public class BucketedMetricCard extends BucketedCard<BucketedMetricCard.ColumnValues> {
 
     @Option(displayName = "Input data table",
             description = "The fully qualified class name of the data table to read rows from. " +
@@ -77,8 +68,11 @@ public class BucketedMetricCard extends UpgradeMigrationCard {
                           "`AVERAGE` operate on numeric values of the column. `COUNT` returns the " +
                           "number of rows the upstream data table emitted for this repository, " +
                           "regardless of column value. `UNIQUE` returns the number of distinct " +
-                          "non-null values of the column. Matching is case-insensitive.",
-            valid = {"MIN", "MAX", "SUM", "AVERAGE", "COUNT", "UNIQUE"},
+                          "non-null values of the column. `MEDIAN`, `P90`, and `P99` estimate that " +
+                          "percentile of the numeric values to within 1%, and `APPROXIMATE_UNIQUE` " +
+                          "estimates the number of distinct non-null values, both in fixed memory " +
+                          "regardless of the number of rows. Matching is case-insensitive.",
+            valid = {"MIN", "MAX", "SUM", "AVERAGE", "COUNT", "UNIQUE", "MEDIAN", "P90", "P99", "APPROXIMATE_UNIQUE"},
             example = "AVERAGE")
     AggregationFunction aggregation;
 
@@ -95,144 +89,104 @@ public class BucketedMetricCard extends UpgradeMigrationCard {
                       "{\"name\": \"HIGH\", \"moreThan\": 0}]")
     Bucket[] buckets;
 
-    String displayName = "DevCenter card from a data table column";
+    @Option(displayName = "Emit metric aggregates",
+            description = "Also emit the count, sum, minimum, maximum, and a quantile sketch of the column's " +
+                          "numeric values to the `MetricAggregates` data table. These merge across repositories, " +
+                          "so that an organization's true average and percentiles of the metric can be reported.",
+            required = false)
+    @Nullable
+    Boolean emitMetricAggregates;
+
+    @Option(displayName = "Aggregate at end of run",
+            description = "Aggregate once the whole run is complete rather than in a second recipe cycle. " +
+                          "This saves a second traversal of every source file when no other recipe in the " +
+                          "run needs another cycle.",
+            required = false)
+    @Nullable
+    Boolean aggregateAtEndOfRun;
+
+    @Option(displayName = "Emit card scans",
+            description = "Also emit how many tables and rows of the input data table were read to the " +
+                          "`MetricCardScans` data table.",
+            required = false)
+    @Nullable
+    Boolean emitCardScans;
 
-    @Override
-    public String getInstanceName() {
-        return cardName;
-    }
+    String displayName = "DevCenter card from a data table column";
 
     String description = "Read rows from a previously emitted data table, aggregate a numeric column across " +
             "all rows for this repository, and bucket the result into ordinal DevCenter measures.";
 
-    @Override
-    public boolean causesAnotherCycle() {
-        return true;
-    }
+    @Getter(AccessLevel.NONE)
+    transient MetricAggregates metricAggregates = new MetricAggregates(this);
 
-    @Override
-    public @Nullable String getFixRecipeId() {
-        return null;
-    }
+    @Getter(AccessLevel.NONE)
+    transient MetricCardScans metricCardScans = new MetricCardScans(this);
 
-    @Override
-    public List<DevCenterMeasure> getMeasures() {
-        List<DevCenterMeasure> measures = new ArrayList<>(buckets.length);
-        for (int i = 0; i < buckets.length; i++) {
-            measures.add(new BucketMeasure(buckets[i].getName(), i));
-        }
-        return measures;
+    /**
+     * The card's options before it could emit metric aggregates or aggregate at the end of the run,
+     * both of which are off.
+     */
+    public BucketedMetricCard(String inputDataTable, String cardName, String column,
+                              AggregationFunction aggregation, Bucket[] buckets) {
+        this(inputDataTable, cardName, column, aggregation, buckets, null, null);
     }
 
-    @Override
-    public int ordinal(DevCenterMeasure measure) {
-        if (measure instanceof BucketMeasure) {
-            return ((BucketMeasure) measure).getOrdinal();
-        }
-        return super.ordinal(measure);
+    /**
+     * The card's options before it could emit card scans, which is off.
+     */
+    public BucketedMetricCard(String inputDataTable, String cardName, String column,
+                              AggregationFunction aggregation, Bucket[] buckets,
+                              @Nullable Boolean emitMetricAggregates, @Nullable Boolean aggregateAtEndOfRun) {
+        this(inputDataTable, cardName, column, aggregation, buckets, emitMetricAggregates, aggregateAtEndOfRun, null);
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new TreeVisitor<Tree, ExecutionContext>() {
-            @Override
-            public Tree preVisit(Tree tree, ExecutionContext ctx) {
-                stopAfterPreVisit();
-                if (ctx.getCycle() == 1) {
-                    // Defer aggregation until cycle 2 so the upstream data table is fully
-                    // populated. Ping CYCLE_TRIGGER so the scheduler enrolls us for another
-                    // cycle even if no other recipe in this list edits any source.
-                    ctx.putMessage(DevCenter.CYCLE_TRIGGER, true);
-                    return tree;
-                }
-                AtomicBoolean inserted = ctx.computeMessageIfAbsent(
-                        BucketedMetricCard.class.getName() + ".inserted." + cardName,
-                        k -> new AtomicBoolean(false));
-                if (!inserted.compareAndSet(false, true)) {
-                    return tree;
-                }
-
-                List<Object> values = extractColumnValues(collectRows(ctx));
-                Double aggregated = aggregation.apply(values);
-                if (aggregated == null) {
-                    return tree;
-                }
-                Bucket bucket = Bucket.match(aggregated, buckets);
-                if (bucket == null) {
-                    return tree;
-                }
-                int ordinal = indexOf(bucket);
-                upgradesAndMigrations.insertRow(ctx, BucketedMetricCard.this,
-                        new BucketMeasure(bucket.getName(), ordinal), null);
-                return tree;
-            }
-        };
+    protected ColumnValues newScan() {
+        return new ColumnValues(column, aggregation.newAccumulator(),
+                Boolean.TRUE.equals(emitMetricAggregates) ? new MetricAggregate() : null);
     }
 
-    @SuppressWarnings("unchecked")
-    private List<Object> collectRows(ExecutionContext ctx) {
-        DataTableStore store = DataTableExecutionContextView.view(ctx).getDataTableStore();
-        List<Object> rows = new ArrayList<>();
-        for (DataTable<?> dt : store.getDataTables()) {
-            if (dt.getClass().getName().equals(inputDataTable)) {
-                Class<? extends DataTable<Object>> dtClass = (Class<? extends DataTable<Object>>) dt.getClass();
-                store.getRows(dtClass, dt.getGroup()).forEach(rows::add);
-            }
+    @Override
+    protected void report(ExecutionContext ctx, ColumnValues values) {
+        if (Boolean.TRUE.equals(emitCardScans)) {
+            metricCardScans.insertRow(ctx, new MetricCardScans.Row(
+                    cardName, inputDataTable, values.tablesRead, values.rowsRead));
         }
-        return rows;
-    }
-
-    private List<Object> extractColumnValues(List<Object> rows) {
-        List<Object> values = new ArrayList<>(rows.size());
-        for (Object row : rows) {
-            values.add(extractRawValue(row));
+        if (values.metric != null && values.metric.getCount() > 0) {
+            metricAggregates.insertRow(ctx, cardName, values.metric);
         }
-        return values;
-    }
-
-    private @Nullable Object extractRawValue(Object row) {
-        for (Field field : row.getClass().getDeclaredFields()) {
-            Column annotation = field.getAnnotation(Column.class);
-            String displayName = annotation == null ? null : annotation.displayName();
-            if (!column.equalsIgnoreCase(field.getName()) &&
-                (displayName == null || !column.equalsIgnoreCase(displayName))) {
-                continue;
-            }
-            try {
-                field.setAccessible(true);
-                return field.get(row);
-            } catch (IllegalAccessException ignored) {
-                return null;
-            }
+        Double aggregated = values.accumulator.result();
+        if (aggregated == null) {
+            return;
         }
-        return null;
-    }
-
-    private int indexOf(Bucket bucket) {
-        for (int i = 0; i < buckets.length; i++) {
-            if (buckets[i] == bucket) {
-                return i;
-            }
+        int ordinal = matcher().match(aggregated);
+        if (ordinal < 0) {
+            return;
         }
-        return -1;
+        upgradesAndMigrations.insertRow(ctx, this, getMeasures().get(ordinal), null);
     }
 
-    @Value
-    public static class BucketMeasure implements DevCenterMeasure {
-        @Language("markdown")
-        String name;
-
-        int ordinal;
-
-        @Override
-        public int ordinal() {
-            return ordinal;
+    /**
+     * Feeds the column value of each row to an accumulator, and to the metric's
+     * aggregate when the card emits one.
+     */
+    static class ColumnValues extends ColumnScan {
+        private final AggregationFunction.Accumulator accumulator;
+        private final @Nullable MetricAggregate metric;
+
+        ColumnValues(String column, AggregationFunction.Accumulator accumulator, @Nullable MetricAggregate metric) {
+            super(column);
+            this.accumulator = accumulator;
+            this.metric = metric;
         }
 
         @Override
-        @Language("markdown")
-        public String getDescription() {
-            return "Aggregated column value falls within the \"" + name + "\" bucket.";
+        protected void accept(@Nullable Object value) {
+            accumulator.accept(value);
+            if (metric != null) {
+                metric.accept(value);
+            }
         }
     }
 }
@@ -15,7 +15,10 @@
  */
 package io.moderne.devcenter;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
@@ -23,6 +26,7 @@ import org.openrewrite.marker.BuildTool;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
@@ -51,8 +55,16 @@ public class BuildToolCard extends UpgradeMigrationCard {
     String fixRecipeId;
 
     String displayName = "Build tool";
+
     String description = "Track build tool versions across repositories.";
 
+    /**
+     * Built on first use, since the target version never changes.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    transient AtomicReference<@Nullable SemverRowBuilder> rowBuilder = new AtomicReference<>();
+
     @Override
     public String getInstanceName() {
         return getCardName();
@@ -66,8 +78,8 @@ public class BuildToolCard extends UpgradeMigrationCard {
                 if (tree instanceof SourceFile) {
                     tree.getMarkers().findFirst(BuildTool.class).ifPresent(bt -> {
                         if (bt.getType().name().equalsIgnoreCase(buildTool)) {
-                            SemverRowBuilder rowBuilder = new SemverRowBuilder(cardName, targetVersion);
-                            upgradesAndMigrations.insertRow(ctx, rowBuilder.getRow(bt.getVersion()));
+                            SemverRowBuilder builder = SemverRowBuilder.memoized(rowBuilder, cardName, targetVersion);
+                            upgradesAndMigrations.insertRow(ctx, builder.getRow(bt.getVersion()));
                         }
                     });
                 }
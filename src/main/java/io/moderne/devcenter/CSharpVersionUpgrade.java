@@ -15,6 +15,7 @@
  */
 package io.moderne.devcenter;
 
+import io.moderne.devcenter.internal.VersionNumbers;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -25,8 +26,6 @@ import org.openrewrite.*;
 import org.openrewrite.csharp.marker.MSBuildProject;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
@@ -35,13 +34,8 @@ import static java.util.stream.Collectors.toList;
 @EqualsAndHashCode(callSuper = false)
 public class CSharpVersionUpgrade extends UpgradeMigrationCard {
 
-    // Matches modern TFMs: net5.0, net6.0, net7.0, net8.0, net9.0
-    private static final Pattern MODERN_TFM_PATTERN =
-            Pattern.compile("^net(\\d+)\\.\\d+$");
-
-    // Matches .NET Core TFMs: netcoreapp2.1, netcoreapp3.1
-    private static final Pattern CORE_TFM_PATTERN =
-            Pattern.compile("^netcoreapp(\\d+)\\.\\d+$");
+    private static final VersionNumbers.Tiers<Measure> TIERS = VersionNumbers.tiers(Measure.values(), Measure.Completed,
+            measure -> VersionNumbers.of(measure.minimumMajorVersion, 0));
 
     @Option(displayName = "Major version",
             description = "The major version of .NET to upgrade to.",
@@ -84,22 +78,9 @@ public class CSharpVersionUpgrade extends UpgradeMigrationCard {
                             }
 
                             if (minTfm != null) {
-                                Measure measure = Measure.Completed;
-                                if (minVersion < majorVersion) {
-                                    if (minVersion >= 10) {
-                                        measure = Measure.DotNet10Plus;
-                                    } else if (minVersion >= 9) {
-                                        measure = Measure.DotNet9Plus;
-                                    } else if (minVersion >= 8) {
-                                        measure = Measure.DotNet8Plus;
-                                    } else if (minVersion >= 7) {
-                                        measure = Measure.DotNet7Plus;
-                                    } else if (minVersion >= 6) {
-                                        measure = Measure.DotNet6Plus;
-                                    } else {
-                                        measure = Measure.DotNetFramework;
-                                    }
-                                }
+                                Measure measure = minVersion < majorVersion ?
+                                        TIERS.classify(VersionNumbers.of(minVersion, 0)) :
+                                        Measure.Completed;
 
                                 upgradesAndMigrations.insertRow(ctx, CSharpVersionUpgrade.this,
                                         measure, minTfm);
@@ -113,13 +94,15 @@ public class CSharpVersionUpgrade extends UpgradeMigrationCard {
     }
 
     static int parseMajorVersion(String tfm) {
-        Matcher m = MODERN_TFM_PATTERN.matcher(tfm);
-        if (m.matches()) {
-            return Integer.parseInt(m.group(1));
+        // Modern TFMs like "net8.0", then .NET Core TFMs like "netcoreapp3.1"
+        long version = VersionNumbers.NONE;
+        if (tfm.startsWith("netcoreapp")) {
+            version = VersionNumbers.parse(tfm, "netcoreapp".length());
+        } else if (tfm.startsWith("net")) {
+            version = VersionNumbers.parse(tfm, "net".length());
         }
-        m = CORE_TFM_PATTERN.matcher(tfm);
-        if (m.matches()) {
-            return Integer.parseInt(m.group(1));
+        if (version != VersionNumbers.NONE) {
+            return VersionNumbers.major(version);
         }
         // Legacy .NET Framework TFMs like "net48", "net472", "net461"
         // and .NET Standard like "netstandard2.0" are all pre-.NET 5
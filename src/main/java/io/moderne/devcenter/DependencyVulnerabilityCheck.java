@@ -15,30 +15,45 @@
  */
 package io.moderne.devcenter;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import io.moderne.devcenter.internal.AdvisoryIndex;
+import io.moderne.devcenter.internal.VersionNumbers;
+import io.moderne.devcenter.table.VulnerabilityFindings;
+import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.Value;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.gradle.IsBuildGradle;
+import org.openrewrite.gradle.marker.GradleDependencyConfiguration;
+import org.openrewrite.gradle.marker.GradleProject;
 import org.openrewrite.java.dependencies.DependencyVulnerabilityCheckBase;
 import org.openrewrite.java.dependencies.DependencyVulnerabilityCheckBase.UpgradeDelta;
-import org.openrewrite.java.dependencies.internal.VersionParser;
 import org.openrewrite.java.dependencies.table.VulnerabilityReport;
 import org.openrewrite.maven.MavenDownloadingException;
 import org.openrewrite.maven.MavenDownloadingExceptions;
 import org.openrewrite.maven.search.FindMavenProject;
+import org.openrewrite.maven.tree.MavenResolutionResult;
+import org.openrewrite.maven.tree.ResolvedDependency;
+import org.openrewrite.maven.tree.ResolvedGroupArtifactVersion;
+import org.openrewrite.maven.tree.Scope;
 
-import java.util.Arrays;
-import java.util.List;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static io.moderne.devcenter.DependencyVulnerabilityCheck.UpgradeDeltaMeasure.NotFixable;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 import static java.util.stream.Collectors.toList;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
+@AllArgsConstructor(onConstructor_ = @JsonCreator)
 public class DependencyVulnerabilityCheck extends UpgradeMigrationCard {
 
     private static final String SEVERITY = "Severity";
@@ -62,9 +77,44 @@ public class DependencyVulnerabilityCheck extends UpgradeMigrationCard {
             valid = {SEVERITY, UPGRADE_DELTA, RISK_SCORE})
     String measure;
 
+    @Option(displayName = "Per repository",
+            description = "Resolve vulnerabilities once for the whole repository rather than for each build file. " +
+                          "A build file is only matched against the vulnerability database when it resolves a " +
+                          "dependency version that no other build file of the repository already has, so a " +
+                          "repository with many modules costs about as much as its distinct dependencies. " +
+                          "By default this is false.",
+            required = false)
+    @Nullable
+    Boolean perRepository;
+
+    @Option(displayName = "Advisory index",
+            description = "The path to a prebuilt advisory index to match resolved runtime dependencies against, " +
+                          "instead of the vulnerability database bundled with rewrite-java-security. The index is " +
+                          "memory-mapped rather than loaded onto the heap, so it is shared by every process on the " +
+                          "same machine that opens it.",
+            required = false)
+    @Nullable
+    String advisoryIndex;
+
+    transient VulnerabilityFindings vulnerabilityFindings = new VulnerabilityFindings(this);
+
+    /**
+     * Built on first use, since {@link #fold} looks measures up for every finding.
+     */
+    @ToString.Exclude
+    transient AtomicReference<@Nullable List<DevCenterMeasure>> measures = new AtomicReference<>();
+
     String displayName = "Vulnerabilities status";
     String description = "Determine the current state of a repository relative to its vulnerabilities.";
 
+    /**
+     * A card that matches each build file against the vulnerability database bundled with
+     * rewrite-java-security.
+     */
+    public DependencyVulnerabilityCheck(@Nullable Boolean fixableOnly, @Nullable Boolean addTransitive, String measure) {
+        this(fixableOnly, addTransitive, measure, null, null);
+    }
+
     @Override
     public String getInstanceNameSuffix() {
         return String.format("by %s", measure);
@@ -72,69 +122,233 @@ public class DependencyVulnerabilityCheck extends UpgradeMigrationCard {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        org.openrewrite.java.dependencies.DependencyVulnerabilityCheck scan = new org.openrewrite.java.dependencies.DependencyVulnerabilityCheck("runtime", addTransitive == null || addTransitive, UpgradeDelta.none, null, null);
+        org.openrewrite.java.dependencies.DependencyVulnerabilityCheck scan = newScan();
         return Preconditions.check(Preconditions.or(new IsBuildGradle<>(), new FindMavenProject().getVisitor()), new TreeVisitor<Tree, ExecutionContext>() {
             @Override
             public Tree preVisit(Tree tree, ExecutionContext ctx) {
                 stopAfterPreVisit();
+                if (advisoryIndex != null) {
+                    AdvisoryIndex index = AdvisoryIndex.open(Paths.get(advisoryIndex));
+                    if (Boolean.TRUE.equals(perRepository)) {
+                        IndexFindings repository = ctx.computeMessageIfAbsent(repositoryScanKey(), k -> new IndexFindings());
+                        synchronized (repository) {
+                            match(index, (SourceFile) tree, repository);
+                        }
+                    } else {
+                        IndexFindings findings = new IndexFindings();
+                        match(index, (SourceFile) tree, findings);
+                        insertRows(findings.best, findings.count, ((SourceFile) tree).getSourcePath().toString(), ctx);
+                    }
+                    return tree;
+                }
+                if (Boolean.TRUE.equals(perRepository)) {
+                    // Findings are reported once for the whole repository in onComplete.
+                    repositoryScan(scan, ctx).scan(scan, (SourceFile) tree, ctx);
+                    return tree;
+                }
                 // Build the accumulator as a local. scan.getAccumulator(...) would pin it on the
                 // shared per-cycle root cursor under a fresh UUID key (scan is reconstructed for
                 // every getVisitor() call, so the key is never the same twice), leaving one
-                // vulnerability-DB-bearing Accumulator stranded on the root cursor for every
-                // Maven/Gradle build file visited. On multi-module repos that grows to GBs.
-                DependencyVulnerabilityCheckBase.Accumulator acc = scan.getInitialValue(ctx);
-                try {
-                    scan.getScanner(acc).visitNonNull(tree, ctx);
-                } catch (Exception e) {
-                    if (!((e.getCause() instanceof MavenDownloadingException) || (e.getCause() instanceof MavenDownloadingExceptions))) {
-                        throw e;
-                    }
-                    // ignore the MavenDownloadingException(s) that might occur in the scanning phase as the RecipeRunCycle.scanSources also does this when such an error occurs during scanning phase in a ScanningRecipe.
-                }
-                insertRows(scan.vulnerabilities(acc), ctx);
+                // Accumulator stranded on the root cursor for every Maven/Gradle build file
+                // visited. The accumulator only holds this build file's findings, and shares
+                // the vulnerability database rather than loading it again.
+                DependencyVulnerabilityCheckBase.Accumulator acc = newAccumulator(scan, ctx);
+                scan(scan, acc, tree, ctx);
+                insertRows(scan.vulnerabilities(acc), ((SourceFile) tree).getSourcePath().toString(), ctx);
                 return tree;
             }
+        });
+    }
 
-            private void insertRows(List<VulnerabilityReport.Row> vulnerableDependencies, ExecutionContext ctx) {
-                if (vulnerableDependencies.isEmpty()) {
-                    if (SEVERITY.equalsIgnoreCase(measure)) {
-                        upgradesAndMigrations.insertRow(ctx, DependencyVulnerabilityCheck.this, SeverityMeasure.Completed, "Vulnerabilities found.");
-                    } else if (UPGRADE_DELTA.equalsIgnoreCase(measure)) {
-                        upgradesAndMigrations.insertRow(ctx, DependencyVulnerabilityCheck.this, UpgradeDeltaMeasure.Completed, "Vulnerabilities found.");
-                    } else if (RISK_SCORE.equalsIgnoreCase(measure)) {
-                        upgradesAndMigrations.insertRow(ctx, DependencyVulnerabilityCheck.this, EPSSMeasure.NotFound, "Vulnerabilities found.");
-                    }
-                    return;
-                }
+    @Override
+    public void onComplete(ExecutionContext ctx) {
+        if (Boolean.TRUE.equals(perRepository)) {
+            Object repository = ctx.getMessage(repositoryScanKey());
+            if (repository instanceof RepositoryScan) {
+                insertRows(newScan().vulnerabilities(((RepositoryScan) repository).accumulator), null, ctx);
+            } else if (repository instanceof IndexFindings) {
+                IndexFindings findings = (IndexFindings) repository;
+                insertRows(findings.best, findings.count, null, ctx);
+            }
+        }
+        super.onComplete(ctx);
+    }
 
-                for (VulnerabilityReport.Row row : vulnerableDependencies) {
-                    if (UPGRADE_DELTA.equalsIgnoreCase(measure)) {
-                        if (row.getFixedVersion() == null && row.getLastAffectedVersion() == null) {
-                            if (fixableOnly == null || fixableOnly) {
-                                upgradesAndMigrations.insertRow(ctx, DependencyVulnerabilityCheck.this, UpgradeDeltaMeasure.Completed, "No fix available for at least 1 vulnerability.");
-                                continue;
-                            }
-                            upgradesAndMigrations.insertRow(ctx, DependencyVulnerabilityCheck.this, NotFixable, "No fix available for at least 1 vulnerability.");
-                            continue;
-                        }
-                        if (row.getFixedVersion() != null) {
-                            upgradesAndMigrations.insertRow(ctx, DependencyVulnerabilityCheck.this, UpgradeDeltaMeasure.ofVersions(row.getVersion(), row.getFixedVersion()), "Vulnerabilities found.");
-                            continue;
-                        }
-                        // lastAffectedVersion is not null, but we don't know the fixed version
-                        upgradesAndMigrations.insertRow(ctx, DependencyVulnerabilityCheck.this, NotFixable, "No fix available for at least 1 vulnerability.");
-                    } else if (SEVERITY.equalsIgnoreCase(measure)) {
-                        if ((fixableOnly == null || fixableOnly) && row.getFixedVersion() == null && row.getLastAffectedVersion() == null) {
-                            upgradesAndMigrations.insertRow(ctx, DependencyVulnerabilityCheck.this, SeverityMeasure.Completed, "No fix available for at least 1 vulnerability.");
-                            continue;
-                        }
-                        upgradesAndMigrations.insertRow(ctx, DependencyVulnerabilityCheck.this, SeverityMeasure.ofSeverity(row.getSeverity()), "Vulnerabilities found.");
-                    } else if (RISK_SCORE.equalsIgnoreCase(measure)) {
-                        upgradesAndMigrations.insertRow(ctx, DependencyVulnerabilityCheck.this, EPSSMeasure.ofScore(row.getEpss()), "Vulnerabilities found.");
-                    }
+    private org.openrewrite.java.dependencies.DependencyVulnerabilityCheck newScan() {
+        return new org.openrewrite.java.dependencies.DependencyVulnerabilityCheck("runtime", addTransitive == null || addTransitive, UpgradeDelta.none, null, null);
+    }
+
+    private static void scan(DependencyVulnerabilityCheckBase scan, DependencyVulnerabilityCheckBase.Accumulator acc, Tree tree, ExecutionContext ctx) {
+        try {
+            scan.getScanner(acc).visitNonNull(tree, ctx);
+        } catch (Exception e) {
+            if (!((e.getCause() instanceof MavenDownloadingException) || (e.getCause() instanceof MavenDownloadingExceptions))) {
+                throw e;
+            }
+            // ignore the MavenDownloadingException(s) that might occur in the scanning phase as the RecipeRunCycle.scanSources also does this when such an error occurs during scanning phase in a ScanningRecipe.
+        }
+    }
+
+    /**
+     * Folds the findings down to the one measure that
+     * {@link io.moderne.devcenter.table.UpgradesAndMigrations} would keep for them anyway, the one
+     * with the lowest {@link #ordinal(DevCenterMeasure) ordinal in this card}, so that only a single
+     * candidate row is offered to it however many vulnerable dependencies were found. A measure
+     * the card doesn't list, like {@link UpgradeDeltaMeasure#NotFixable} when only fixable
+     * vulnerabilities are reported, has an ordinal of -1 and so wins.
+     *
+     * @param sourcePath The build file the findings are for, or {@code null} for the whole repository.
+     */
+    private void insertRows(List<VulnerabilityReport.Row> vulnerableDependencies, @Nullable String sourcePath, ExecutionContext ctx) {
+        DevCenterMeasure best = null;
+        for (VulnerabilityReport.Row row : vulnerableDependencies) {
+            best = fold(best, measureOf(row.getVersion(), row.getFixedVersion(), row.getLastAffectedVersion() != null,
+                    row.getSeverity(), row.getEpss()));
+        }
+        insertRows(best, vulnerableDependencies.size(), sourcePath, ctx);
+    }
+
+    private void insertRows(@Nullable DevCenterMeasure best, int findings, @Nullable String sourcePath, ExecutionContext ctx) {
+        if (findings == 0) {
+            if (SEVERITY.equalsIgnoreCase(measure)) {
+                upgradesAndMigrations.insertRow(ctx, this, SeverityMeasure.Completed, "Vulnerabilities found.");
+            } else if (UPGRADE_DELTA.equalsIgnoreCase(measure)) {
+                upgradesAndMigrations.insertRow(ctx, this, UpgradeDeltaMeasure.Completed, "Vulnerabilities found.");
+            } else if (RISK_SCORE.equalsIgnoreCase(measure)) {
+                upgradesAndMigrations.insertRow(ctx, this, EPSSMeasure.NotFound, "Vulnerabilities found.");
+            }
+            return;
+        }
+        if (best == null) {
+            return;
+        }
+        upgradesAndMigrations.insertRow(ctx, this, best, best == UpgradeDeltaMeasure.Completed || best == NotFixable || best == SeverityMeasure.Completed ?
+                "No fix available for at least 1 vulnerability." :
+                "Vulnerabilities found.");
+        // A build file is visited again in every later cycle, but its findings are only counted once.
+        Set<String> reported = ctx.computeMessageIfAbsent(
+                DependencyVulnerabilityCheck.class.getName() + ".reported." + getInstanceName(),
+                k -> ConcurrentHashMap.newKeySet());
+        if (reported.add(sourcePath == null ? "" : sourcePath)) {
+            vulnerabilityFindings.insertRow(ctx, new VulnerabilityFindings.Row(getInstanceName(), sourcePath, findings));
+        }
+    }
+
+    private @Nullable DevCenterMeasure fold(@Nullable DevCenterMeasure best, @Nullable DevCenterMeasure m) {
+        return m != null && (best == null || ordinal(m) < ordinal(best)) ? m : best;
+    }
+
+    private @Nullable DevCenterMeasure measureOf(String version, @Nullable String fixedVersion, boolean hasLastAffectedVersion,
+                                                 String severity, @Nullable Double epss) {
+        if (UPGRADE_DELTA.equalsIgnoreCase(measure)) {
+            if (fixedVersion == null && !hasLastAffectedVersion) {
+                return fixableOnly == null || fixableOnly ? UpgradeDeltaMeasure.Completed : NotFixable;
+            }
+            if (fixedVersion != null) {
+                return UpgradeDeltaMeasure.ofVersions(version, fixedVersion);
+            }
+            // lastAffectedVersion is not null, but we don't know the fixed version
+            return NotFixable;
+        } else if (SEVERITY.equalsIgnoreCase(measure)) {
+            if ((fixableOnly == null || fixableOnly) && fixedVersion == null && !hasLastAffectedVersion) {
+                return SeverityMeasure.Completed;
+            }
+            return SeverityMeasure.ofSeverity(severity);
+        } else if (RISK_SCORE.equalsIgnoreCase(measure)) {
+            return EPSSMeasure.ofScore(epss);
+        }
+        return null;
+    }
+
+    /**
+     * Matches the resolved runtime dependencies of a build file against the advisory index,
+     * skipping any resolved dependency that has already been matched into these findings.
+     */
+    private void match(AdvisoryIndex index, SourceFile buildFile, IndexFindings findings) {
+        boolean transitive = addTransitive == null || addTransitive;
+        Optional<MavenResolutionResult> mrr = buildFile.getMarkers().findFirst(MavenResolutionResult.class);
+        if (mrr.isPresent()) {
+            for (ResolvedDependency d : mrr.get().getDependencies().getOrDefault(Scope.Runtime, emptyList())) {
+                if (transitive || d.getDepth() == 0) {
+                    match(index, d, findings);
                 }
             }
-        });
+        }
+        Optional<GradleProject> gp = buildFile.getMarkers().findFirst(GradleProject.class);
+        if (gp.isPresent()) {
+            GradleDependencyConfiguration runtimeClasspath = gp.get().getConfiguration("runtimeClasspath");
+            if (runtimeClasspath != null) {
+                Set<ResolvedDependency> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (ResolvedDependency root : runtimeClasspath.getResolved()) {
+                    matchTree(index, root, transitive, visited, findings);
+                }
+            }
+        }
+    }
+
+    private void matchTree(AdvisoryIndex index, ResolvedDependency d, boolean transitive,
+                           Set<ResolvedDependency> visited, IndexFindings findings) {
+        if (!visited.add(d)) {
+            return;
+        }
+        match(index, d, findings);
+        if (transitive) {
+            for (ResolvedDependency child : d.getDependencies()) {
+                matchTree(index, child, true, visited, findings);
+            }
+        }
+    }
+
+    private void match(AdvisoryIndex index, ResolvedDependency d, IndexFindings findings) {
+        if (!findings.matched.add(d.getGav())) {
+            return;
+        }
+        int groupArtifact = index.find(d.getGroupId(), d.getArtifactId());
+        if (groupArtifact < 0) {
+            return;
+        }
+        long version = AdvisoryIndex.encodeVersion(d.getVersion());
+        for (int a = index.firstAdvisory(groupArtifact), end = index.endOfAdvisories(groupArtifact, version); a < end; a++) {
+            if (index.affects(a, version)) {
+                findings.count++;
+                findings.best = fold(findings.best, measureOf(d.getVersion(), index.getFixedVersion(a),
+                        index.hasLastAffectedVersion(a), index.getSeverity(a), index.getEpss(a)));
+            }
+        }
+    }
+
+    private String repositoryScanKey() {
+        return DependencyVulnerabilityCheck.class.getName() + ".repository." + getInstanceName();
+    }
+
+    private RepositoryScan repositoryScan(DependencyVulnerabilityCheckBase scan, ExecutionContext ctx) {
+        RepositoryScan repository = ctx.getMessage(repositoryScanKey());
+        if (repository == null) {
+            // Loaded outside of computeMessageIfAbsent, which can't be nested.
+            DependencyVulnerabilityCheckBase.Accumulator accumulator = newAccumulator(scan, ctx);
+            repository = ctx.computeMessageIfAbsent(repositoryScanKey(), k -> new RepositoryScan(accumulator));
+        }
+        return repository;
+    }
+
+    /**
+     * The vulnerability database bundled with rewrite-java-security is loaded on first use
+     * in a run and held by the run's execution context, so that it is released with the run.
+     * It is only ever read, so every build file of the run shares it. The database depends on
+     * nothing but the scope, which this card always scans as runtime.
+     *
+     * @return An accumulator for the findings of one build file, over the shared vulnerability database.
+     */
+    static DependencyVulnerabilityCheckBase.Accumulator newAccumulator(DependencyVulnerabilityCheckBase scan, ExecutionContext ctx) {
+        String key = DependencyVulnerabilityCheck.class.getName() + ".database";
+        DependencyVulnerabilityCheckBase.Accumulator db = ctx.getMessage(key);
+        if (db == null) {
+            // Loaded outside of computeMessageIfAbsent, which can't be nested, since loading
+            // the database may itself use the execution context's messages.
+            DependencyVulnerabilityCheckBase.Accumulator loaded = scan.getInitialValue(ctx);
+            db = ctx.computeMessageIfAbsent(key, k -> loaded);
+        }
+        return new DependencyVulnerabilityCheckBase.Accumulator(db.getDb(), new HashMap<>(), db.getScope());
     }
 
     @Override
@@ -144,6 +358,15 @@ public class DependencyVulnerabilityCheck extends UpgradeMigrationCard {
 
     @Override
     public List<DevCenterMeasure> getMeasures() {
+        List<DevCenterMeasure> m = measures.get();
+        if (m == null) {
+            m = unmodifiableList(cardMeasures());
+            measures.set(m);
+        }
+        return m;
+    }
+
+    private List<DevCenterMeasure> cardMeasures() {
         if (UPGRADE_DELTA.equalsIgnoreCase(measure)) {
             if (fixableOnly == null || fixableOnly) {
                 return Arrays.stream(UpgradeDeltaMeasure.values()).filter(measure -> NotFixable != measure).collect(toList());
@@ -159,6 +382,82 @@ public class DependencyVulnerabilityCheck extends UpgradeMigrationCard {
         return emptyList();
     }
 
+    /**
+     * The findings of every build file of a repository, keyed by resolved dependency in the
+     * accumulator, along with the shallowest depth at which each resolved dependency has
+     * been seen in any build file scanned so far.
+     */
+    @RequiredArgsConstructor
+    private static class RepositoryScan {
+        private final DependencyVulnerabilityCheckBase.Accumulator accumulator;
+        private final Map<ResolvedGroupArtifactVersion, Integer> minimumDepths = new HashMap<>();
+
+        synchronized void scan(DependencyVulnerabilityCheckBase scan, SourceFile buildFile, ExecutionContext ctx) {
+            if (addDependencies(buildFile)) {
+                DependencyVulnerabilityCheck.scan(scan, accumulator, buildFile, ctx);
+            }
+        }
+
+        /**
+         * @return Whether the build file resolves a runtime dependency that no build file scanned
+         * so far has, or has at a shallower depth, and so may have findings that are not yet known.
+         * Only the runtime scope is considered, since that is the only one that is scanned.
+         */
+        private boolean addDependencies(SourceFile buildFile) {
+            boolean added = false;
+            Optional<MavenResolutionResult> mrr = buildFile.getMarkers().findFirst(MavenResolutionResult.class);
+            if (mrr.isPresent()) {
+                for (ResolvedDependency d : mrr.get().getDependencies().getOrDefault(Scope.Runtime, emptyList())) {
+                    added |= addDependency(d);
+                }
+            }
+            Optional<GradleProject> gp = buildFile.getMarkers().findFirst(GradleProject.class);
+            if (gp.isPresent()) {
+                GradleDependencyConfiguration runtimeClasspath = gp.get().getConfiguration("runtimeClasspath");
+                if (runtimeClasspath != null) {
+                    Set<ResolvedDependency> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+                    for (ResolvedDependency root : runtimeClasspath.getResolved()) {
+                        added |= addDependencyTree(root, visited);
+                    }
+                }
+            }
+            return added;
+        }
+
+        private boolean addDependencyTree(ResolvedDependency d, Set<ResolvedDependency> visited) {
+            if (!visited.add(d)) {
+                return false;
+            }
+            boolean added = addDependency(d);
+            for (ResolvedDependency child : d.getDependencies()) {
+                added |= addDependencyTree(child, visited);
+            }
+            return added;
+        }
+
+        private boolean addDependency(ResolvedDependency d) {
+            Integer depth = minimumDepths.get(d.getGav());
+            if (depth == null || d.getDepth() < depth) {
+                minimumDepths.put(d.getGav(), d.getDepth());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The findings matched from an {@link AdvisoryIndex}, already folded to the one measure
+     * that is reported for them.
+     */
+    private static class IndexFindings {
+        private final Set<ResolvedGroupArtifactVersion> matched = new HashSet<>();
+
+        @Nullable
+        private DevCenterMeasure best;
+
+        private int count;
+    }
+
     @RequiredArgsConstructor
     @Getter
     public enum UpgradeDeltaMeasure implements DevCenterMeasure {
@@ -168,27 +467,18 @@ public class DependencyVulnerabilityCheck extends UpgradeMigrationCard {
         NotFixable("No fix available", "No fix is available for the vulnerabilities that are present"),
         Completed("No vulnerabilities", "No vulnerabilities found.");
 
-        private static final VersionParser parser = new VersionParser();
-
         private final String name;
         private final String description;
 
         public static UpgradeDeltaMeasure ofVersions(String currentVersion, String newVersion) {
-            @Nullable Long[] currentNumericParts = parser.transform(currentVersion).getNumericParts();
-            @Nullable Long[] newNumericParts = parser.transform(newVersion).getNumericParts();
-            for (int i = 0; i < currentNumericParts.length && i < newNumericParts.length; i++) {
-                if ((currentNumericParts[i] == null && newNumericParts[i] != null) || (currentNumericParts[i] != null && !currentNumericParts[i].equals(newNumericParts[i]))) {
-                    switch (i) {
-                        case 0:
-                            return Major;
-                        case 1:
-                            return Minor;
-                        default:
-                            return Patch;
-                    }
-                }
+            switch (VersionNumbers.firstDifferingPart(currentVersion, newVersion)) {
+                case 0:
+                    return Major;
+                case 1:
+                    return Minor;
+                default:
+                    return Patch; // Includes when the new version is longer than the current version
             }
-            return Patch; // New version is longer than current version
         }
     }
 
@@ -29,10 +29,16 @@ import org.openrewrite.config.DataTableDescriptor;
 import org.openrewrite.config.OptionDescriptor;
 import org.openrewrite.config.RecipeDescriptor;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
 
+import static java.lang.invoke.MethodType.methodType;
 import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
 
 @RequiredArgsConstructor
 public class DevCenter {
@@ -48,10 +54,20 @@ public class DevCenter {
      */
     public static final String CYCLE_TRIGGER = "io.moderne.devcenter.cycleTrigger";
 
+    /**
+     * Only used to serialize {@link #getSpec()}, and safe to share once configured.
+     */
+    private static final ObjectMapper SPEC_MAPPER = new ObjectMapper();
+
     private final Recipe recipe;
 
     private transient @Nullable List<Card> upgradesAndMigrations;
-    private transient @Nullable AtomicReference<Card> securityIssues;
+    private transient @Nullable List<Card> securityIssues;
+    private transient @Nullable List<Card> cards;
+    private transient @Nullable Map<String, Card> cardsByName;
+    private transient byte @Nullable [] spec;
+    private transient @Nullable String specJson;
+    private transient @Nullable String specHash;
 
     public static boolean isDevCenter(RecipeDescriptor recipe) {
         if (recipe.getOptions().stream().noneMatch(OptionDescriptor::isRequired)) {
@@ -72,7 +88,7 @@ public class DevCenter {
 
     public void validate() throws DevCenterValidationException {
         List<Card> upgradesAndMigrations = getUpgradesAndMigrations();
-        List<Card> security = getSecurityRecursive(recipe, new ArrayList<>());
+        List<Card> security = getAllSecurity();
 
         List<String> validationErrors = new ArrayList<>();
         if (upgradesAndMigrations.isEmpty() && security.isEmpty()) {
@@ -101,36 +117,67 @@ public class DevCenter {
 
     public List<Card> getUpgradesAndMigrations() {
         if (upgradesAndMigrations == null) {
-            upgradesAndMigrations = getUpgradesAndMigrationsRecursive(recipe, new ArrayList<>());
+            discoverCards();
         }
+        //noinspection DataFlowIssue
         return upgradesAndMigrations;
     }
 
     public @Nullable Card getSecurity() {
+        List<Card> allSecurity = getAllSecurity();
+        return allSecurity.isEmpty() ? null : allSecurity.get(0);
+    }
+
+    private List<Card> getAllSecurity() {
         if (securityIssues == null) {
-            List<Card> allSecurity = getSecurityRecursive(recipe, new ArrayList<>());
-            //noinspection DataFlowIssue
-            securityIssues = new AtomicReference<>(allSecurity.isEmpty() ? null : allSecurity.get(0));
+            discoverCards();
         }
-        return securityIssues.get();
+        //noinspection DataFlowIssue
+        return securityIssues;
     }
 
+    /**
+     * Walks the recipe tree once, collecting both the upgrade and migration cards and
+     * every security card.
+     */
+    private void discoverCards() {
+        List<Card> upgrades = new ArrayList<>();
+        List<Card> security = new ArrayList<>();
+        discoverCards(recipe, upgrades, security, true);
+        upgradesAndMigrations = unmodifiableList(upgrades);
+        securityIssues = unmodifiableList(security);
+    }
+
+    /**
+     * @return The upgrade and migration cards followed by the security card, if any. The list
+     * is computed once and shared between calls.
+     */
     public List<Card> getCards() {
-        List<Card> cards = new ArrayList<>(getUpgradesAndMigrations());
-        Card securityCard = getSecurity();
-        if (securityCard != null) {
-            cards.add(securityCard);
+        if (cards == null) {
+            List<Card> all = new ArrayList<>(getUpgradesAndMigrations());
+            Card securityCard = getSecurity();
+            if (securityCard != null) {
+                all.add(securityCard);
+            }
+            cards = unmodifiableList(all);
         }
-        return unmodifiableList(cards);
+        return cards;
     }
 
     public Card getCard(String name) {
-        for (Card card : getCards()) {
-            if (card.getName().equals(name)) {
-                return card;
+        if (cardsByName == null) {
+            Map<String, Card> byName = new HashMap<>();
+            for (Card card : getCards()) {
+                // The first card wins when names collide, as validate() reports
+                byName.putIfAbsent(card.getName(), card);
             }
+            cardsByName = byName;
+        }
+        Card card = cardsByName.get(name);
+        if (card == null) {
+            throw new IllegalArgumentException("No card found with name: " + name);
         }
-        throw new IllegalArgumentException("No card found with name: " + name);
+        return card;
     }
 
     /**
@@ -143,31 +190,86 @@ public class DevCenter {
      *   "apiVersion": "v1",
      *   "upgradesAndMigrations": [
      *     {"name": "...", "fixRecipeId": "...", "measures": ["...", ...]},
+     *     {"name": "...", "fixRecipeId": "...", "measures": ["...", ...], "aggregation": "PER_OCCURRENCE"},
      *     ...
      *   ],
      *   "security": {"name": "...", "fixRecipeId": "...", "measures": [...]} | null
      * }
      * }</pre>
-     * Card and measure ordering is preserved.
+     * Card and measure ordering is preserved. An upgrade and migration card is counted once per
+     * repository unless it carries an {@code aggregation} of {@code PER_OCCURRENCE}, in which case
+     * its measures are counted per occurrence, like those of the security card.
      */
     public String getSpec() {
-        Map<String, Object> spec = new LinkedHashMap<>();
-        spec.put("apiVersion", "v1");
+        if (specJson == null) {
+            specJson = new String(spec(), StandardCharsets.UTF_8);
+        }
+        return specJson;
+    }
 
-        List<Map<String, Object>> upgrades = new ArrayList<>();
-        for (Card card : getUpgradesAndMigrations()) {
-            upgrades.add(cardToSpec(card));
+    /**
+     * The UTF-8 encoding of {@link #getSpec()}, for callers that would rather not share
+     * a {@link String} across classloaders.
+     *
+     * @return A copy of the spec bytes.
+     */
+    public byte[] getSpecBytes() {
+        return spec().clone();
+    }
+
+    /**
+     * A fingerprint of {@link #getSpec()} that changes whenever the cards or their
+     * measures change, and so can key caches of DevCenter results.
+     *
+     * @return The hex encoded SHA-256 digest of the spec.
+     */
+    public String getSpecHash() {
+        if (specHash == null) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(spec());
+                StringBuilder hex = new StringBuilder(digest.length * 2);
+                for (byte b : digest) {
+                    hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+                            .append(Character.forDigit(b & 0xF, 16));
+                }
+                specHash = hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
         }
-        spec.put("upgradesAndMigrations", upgrades);
+        return specHash;
+    }
+
+    /**
+     * The spec is computed once per DevCenter since the card tree never changes.
+     */
+    private byte[] spec() {
+        if (spec == null) {
+            Map<String, Object> specMap = new LinkedHashMap<>();
+            specMap.put("apiVersion", "v1");
+
+            List<Map<String, Object>> upgrades = new ArrayList<>();
+            for (Card card : getUpgradesAndMigrations()) {
+                Map<String, Object> cardSpec = cardToSpec(card);
+                if (card.getAggregation() == Aggregation.PER_OCCURRENCE) {
+                    // Only written when it differs from the default, so the spec of
+                    // existing DevCenters (and so their spec hash) is unchanged.
+                    cardSpec.put("aggregation", card.getAggregation().name());
+                }
+                upgrades.add(cardSpec);
+            }
+            specMap.put("upgradesAndMigrations", upgrades);
 
-        Card securityCard = getSecurity();
-        spec.put("security", securityCard == null ? null : cardToSpec(securityCard));
+            Card securityCard = getSecurity();
+            specMap.put("security", securityCard == null ? null : cardToSpec(securityCard));
 
-        try {
-            return new ObjectMapper().writeValueAsString(spec);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize DevCenter spec", e);
+            try {
+                spec = SPEC_MAPPER.writeValueAsBytes(specMap);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Failed to serialize DevCenter spec", e);
+            }
         }
+        return spec;
     }
 
     private static Map<String, Object> cardToSpec(Card card) {
@@ -182,83 +284,168 @@ public class DevCenter {
         return map;
     }
 
-    private List<Card> getUpgradesAndMigrationsRecursive(Recipe recipe, List<Card> upgradesAndMigrations) {
-        try {
-            Class<?> umcClass = Class.forName(
-                    "io.moderne.devcenter.UpgradeMigrationCard",
-                    false,
-                    recipe.getClass().getClassLoader()
-            );
-            if (umcClass.isInstance(recipe)) {
-                //noinspection unchecked
-                upgradesAndMigrations.add(new Card(
-                        recipe.getInstanceName(),
-                        recipe.getDescription(),
-                        (String) umcClass.getMethod("getFixRecipeId").invoke(recipe),
-                        (List<DevCenterMeasure>) umcClass.getMethod("getMeasures").invoke(recipe),
-                        Aggregation.PER_REPOSITORY
-                ));
+    /**
+     * @param collectSecurity Whether security cards should still be collected in this subtree,
+     *                        which stops below the first security card on any path.
+     */
+    private void discoverCards(Recipe recipe, List<Card> upgradesAndMigrations, List<Card> allSecurity, boolean collectSecurity) {
+        CardAccessor accessor = CARD_ACCESSORS.get(recipe.getClass());
+        if (accessor.isUpgradeMigrationCard()) {
+            upgradesAndMigrations.add(new Card(
+                    recipe.getInstanceName(),
+                    recipe.getDescription(),
+                    accessor.getFixRecipeId(recipe),
+                    unmodifiableList(new ArrayList<>(accessor.getMeasures(recipe))),
+                    accessor.getAggregation(recipe)
+            ));
+        }
+
+        if (collectSecurity) {
+            for (Recipe subRecipe : recipe.getRecipeList()) {
+                CardAccessor subAccessor = CARD_ACCESSORS.get(subRecipe.getClass());
+                if (subAccessor.isReportAsSecurityIssues()) {
+                    allSecurity.add(securityCard(recipe, subAccessor.getFixRecipe(subRecipe)));
+                    collectSecurity = false;
+                    break;
+                }
             }
-        } catch (ClassNotFoundException e) {
-            // Not an UpgradeMigrationCard - ignore
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException("Failed to access UpgradeMigrationCard", e);
         }
+
         for (Recipe subRecipe : recipe.getRecipeList()) {
-            getUpgradesAndMigrationsRecursive(subRecipe, upgradesAndMigrations);
+            discoverCards(subRecipe, upgradesAndMigrations, allSecurity, collectSecurity);
         }
-        return upgradesAndMigrations;
     }
 
+    private static Card securityCard(Recipe recipe, @Nullable String fixRecipe) {
+        List<DevCenterMeasure> measures = new ArrayList<>();
+        List<Recipe> recipeList = recipe.getRecipeList();
+        for (int i = 0; i < recipeList.size(); i++) {
+            Recipe r = recipeList.get(i);
+            if (CARD_ACCESSORS.get(r.getClass()).isReportAsSecurityIssues()) {
+                continue;
+            }
+            int ordinal = i;
+            DevCenterMeasure devCenterMeasure = new DevCenterMeasure() {
+                @Override
+                public String getName() {
+                    return r.getInstanceName();
+                }
+
+                @Override
+                public String getDescription() {
+                    return r.getDescription();
+                }
+
+                @Override
+                public int ordinal() {
+                    return ordinal;
+                }
+            };
+            measures.add(devCenterMeasure);
+        }
+        return new Card(
+                recipe.getInstanceName(),
+                recipe.getDescription(),
+                fixRecipe,
+                unmodifiableList(measures),
+                Aggregation.PER_OCCURRENCE
+        );
+    }
+
+    private static final String UPGRADE_MIGRATION_CARD = "io.moderne.devcenter.UpgradeMigrationCard";
     private static final String REPORT_AS_SECURITY_ISSUES = "io.moderne.devcenter.ReportAsSecurityIssues";
 
-    private List<Card> getSecurityRecursive(Recipe recipe, List<Card> allSecurity) {
-        for (Recipe subRecipe : recipe.getRecipeList()) {
-            if (REPORT_AS_SECURITY_ISSUES.equals(subRecipe.getClass().getName())) {
-                List<DevCenterMeasure> measures = new ArrayList<>();
-                List<Recipe> recipeList = recipe.getRecipeList();
-                for (int i = 0; i < recipeList.size(); i++) {
-                    Recipe r = recipeList.get(i);
-                    if (REPORT_AS_SECURITY_ISSUES.equals(r.getClass().getName())) {
-                        continue;
-                    }
-                    int ordinal = i;
-                    DevCenterMeasure devCenterMeasure = new DevCenterMeasure() {
-                        @Override
-                        public String getName() {
-                            return r.getInstanceName();
-                        }
-
-                        @Override
-                        public String getDescription() {
-                            return r.getDescription();
-                        }
-
-                        @Override
-                        public int ordinal() {
-                            return ordinal;
-                        }
-                    };
-                    measures.add(devCenterMeasure);
+    /**
+     * Card recipes are matched by class name rather than type, since they may have been
+     * loaded by a different classloader than this class. The lookup of their accessors
+     * is resolved once per recipe class and held weakly alongside it.
+     */
+    private static final ClassValue<CardAccessor> CARD_ACCESSORS = new ClassValue<CardAccessor>() {
+        @Override
+        protected CardAccessor computeValue(Class<?> type) {
+            try {
+                if (REPORT_AS_SECURITY_ISSUES.equals(type.getName())) {
+                    return new CardAccessor(null, null,
+                            MethodHandles.publicLookup().findVirtual(type, "getFixRecipe", methodType(String.class)), null);
                 }
-                try {
-                    allSecurity.add(new Card(
-                            recipe.getInstanceName(),
-                            recipe.getDescription(),
-                            (String) subRecipe.getClass().getMethod("getFixRecipe").invoke(subRecipe),
-                            measures,
-                            Aggregation.PER_OCCURRENCE
-                    ));
-                } catch (ReflectiveOperationException e) {
-                    throw new RuntimeException("Failed to access ReportAsSecurityIssues", e);
+                for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                    if (UPGRADE_MIGRATION_CARD.equals(c.getName())) {
+                        return new CardAccessor(
+                                MethodHandles.publicLookup().findVirtual(c, "getFixRecipeId", methodType(String.class)),
+                                MethodHandles.publicLookup().findVirtual(c, "getMeasures", methodType(List.class)),
+                                null,
+                                aggregation(c));
+                    }
                 }
-                return allSecurity;
+                return CardAccessor.NONE;
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException("Failed to access card recipe " + type.getName(), e);
             }
         }
-        for (Recipe subRecipe : recipe.getRecipeList()) {
-            getSecurityRecursive(subRecipe, allSecurity);
+
+        /**
+         * Looked up by name, since the {@link Aggregation} it returns may also come from the
+         * card's classloader. Cards built against a version of this library that predates it
+         * are counted per repository.
+         */
+        private @Nullable MethodHandle aggregation(Class<?> upgradeMigrationCard) throws IllegalAccessException {
+            try {
+                return MethodHandles.publicLookup().unreflect(upgradeMigrationCard.getMethod("getCardAggregation"));
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    };
+
+    @RequiredArgsConstructor
+    private static class CardAccessor {
+        static final CardAccessor NONE = new CardAccessor(null, null, null, null);
+
+        private final @Nullable MethodHandle fixRecipeId;
+        private final @Nullable MethodHandle measures;
+        private final @Nullable MethodHandle fixRecipe;
+
+        private final @Nullable MethodHandle aggregation;
+
+        boolean isUpgradeMigrationCard() {
+            return fixRecipeId != null;
+        }
+
+        boolean isReportAsSecurityIssues() {
+            return fixRecipe != null;
+        }
+
+        Aggregation getAggregation(Recipe recipe) {
+            if (aggregation == null) {
+                return Aggregation.PER_REPOSITORY;
+            }
+            return Aggregation.valueOf(((Enum<?>) requireNonNull(invoke(aggregation, recipe))).name());
+        }
+
+        @Nullable
+        String getFixRecipeId(Recipe recipe) {
+            return (String) invoke(requireNonNull(fixRecipeId), recipe);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<DevCenterMeasure> getMeasures(Recipe recipe) {
+            return (List<DevCenterMeasure>) requireNonNull(invoke(requireNonNull(measures), recipe));
+        }
+
+        @Nullable
+        String getFixRecipe(Recipe recipe) {
+            return (String) invoke(requireNonNull(fixRecipe), recipe);
+        }
+
+        private static @Nullable Object invoke(MethodHandle handle, Recipe recipe) {
+            try {
+                return handle.invoke(recipe);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException("Failed to access card recipe " + recipe.getClass().getName(), t);
+            }
         }
-        return allSecurity;
     }
 
     @Value
@@ -274,9 +461,21 @@ public class DevCenter {
         @Nullable
         String fixRecipeId;
 
+        /**
+         * An immutable, random access list, so the measure for an ordinal is an index into it.
+         */
         List<DevCenterMeasure> measures;
 
         Aggregation aggregation;
+
+        /**
+         * @param ordinal The position of the measure in {@link #getMeasures()}, as written to the
+         *                {@code ordinal} column of the DevCenter data tables.
+         * @return The measure at that position.
+         */
+        public DevCenterMeasure getMeasure(int ordinal) {
+            return measures.get(ordinal);
+        }
     }
 
     public enum Aggregation {
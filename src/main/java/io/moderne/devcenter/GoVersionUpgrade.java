@@ -15,6 +15,7 @@
  */
 package io.moderne.devcenter;
 
+import io.moderne.devcenter.internal.VersionNumbers;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -25,8 +26,6 @@ import org.openrewrite.*;
 import org.openrewrite.golang.marker.GoResolutionResult;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
@@ -35,8 +34,8 @@ import static java.util.stream.Collectors.toList;
 @EqualsAndHashCode(callSuper = false)
 public class GoVersionUpgrade extends UpgradeMigrationCard {
 
-    private static final Pattern VERSION_PATTERN =
-            Pattern.compile("(\\d+)\\.(\\d+)");
+    private static final VersionNumbers.Tiers<Measure> TIERS = VersionNumbers.tiers(Measure.values(), Measure.Completed,
+            measure -> VersionNumbers.of(1, measure.minimumMinor));
 
     @Option(displayName = "Minor version",
             description = "The minor version of Go (1.x) to upgrade to.",
@@ -67,35 +66,14 @@ public class GoVersionUpgrade extends UpgradeMigrationCard {
                     tree.getMarkers().findFirst(GoResolutionResult.class).ifPresent(result -> {
                         String goVersion = result.getGoVersion();
                         if (goVersion != null) {
-                            int[] version = parseVersion(goVersion);
-                            if (version != null) {
-                                int major = version[0];
-                                int minor = version[1];
-
-                                Measure measure = Measure.Completed;
-                                if (major == 1 && minor < minorVersion) {
-                                    if (minor >= 26) {
-                                        measure = Measure.Go126Plus;
-                                    } else if (minor >= 25) {
-                                        measure = Measure.Go125Plus;
-                                    } else if (minor >= 24) {
-                                        measure = Measure.Go124Plus;
-                                    } else if (minor >= 23) {
-                                        measure = Measure.Go123Plus;
-                                    } else if (minor >= 22) {
-                                        measure = Measure.Go122Plus;
-                                    } else if (minor >= 21) {
-                                        measure = Measure.Go121Plus;
-                                    } else if (minor >= 20) {
-                                        measure = Measure.Go120Plus;
-                                    } else if (minor >= 19) {
-                                        measure = Measure.Go119Plus;
-                                    } else if (minor >= 18) {
-                                        measure = Measure.Go118Plus;
-                                    } else {
-                                        measure = Measure.GoPre118;
-                                    }
-                                }
+                            long version = VersionNumbers.find(goVersion, true);
+                            if (version != VersionNumbers.NONE) {
+                                int major = VersionNumbers.major(version);
+                                int minor = VersionNumbers.minor(version);
+
+                                Measure measure = major == 1 && minor < minorVersion ?
+                                        TIERS.classify(version) :
+                                        Measure.Completed;
 
                                 upgradesAndMigrations.insertRow(ctx, GoVersionUpgrade.this,
                                         measure, major + "." + minor);
@@ -108,14 +86,6 @@ public class GoVersionUpgrade extends UpgradeMigrationCard {
         };
     }
 
-    static int @Nullable [] parseVersion(String goVersion) {
-        Matcher m = VERSION_PATTERN.matcher(goVersion);
-        if (m.find()) {
-            return new int[]{Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))};
-        }
-        return null;
-    }
-
     @Override
     public List<DevCenterMeasure> getMeasures() {
         return Stream.of(Measure.values())
@@ -16,6 +16,7 @@
 package io.moderne.devcenter;
 
 import io.moderne.devcenter.internal.ResolvedDependencyVersions;
+import io.moderne.devcenter.internal.VersionNumbers;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -35,6 +36,9 @@ import static java.util.stream.Collectors.toList;
 @EqualsAndHashCode(callSuper = false)
 public class GroovyVersionUpgrade extends UpgradeMigrationCard {
 
+    private static final VersionNumbers.Tiers<Measure> TIERS = VersionNumbers.tiers(Measure.values(), Measure.Completed,
+            measure -> VersionNumbers.of(measure.minimumMajorVersion, 0));
+
     @Option(displayName = "Major version",
             description = "The major version of Groovy to upgrade to.",
             example = "4")
@@ -76,31 +80,18 @@ public class GroovyVersionUpgrade extends UpgradeMigrationCard {
 
     private void findGroovyDependency(ExecutionContext ctx, SourceFile source, String groupId, String artifactId) {
         for (String version : ResolvedDependencyVersions.findVersions(source, groupId, artifactId)) {
-            int actualMajor = parseMajorVersion(version);
-            Measure measure = Measure.Completed;
-            if (actualMajor < majorVersion) {
-                if (actualMajor >= 5) {
-                    measure = Measure.Groovy5Plus;
-                } else if (actualMajor >= 4) {
-                    measure = Measure.Groovy4Plus;
-                } else if (actualMajor >= 3) {
-                    measure = Measure.Groovy3Plus;
-                } else if (actualMajor >= 2) {
-                    measure = Measure.Groovy2Plus;
-                } else {
-                    measure = Measure.Groovy1Plus;
-                }
+            long actual = VersionNumbers.find(version, false);
+            if (actual == VersionNumbers.NONE) {
+                continue;
             }
+            Measure measure = VersionNumbers.major(actual) < majorVersion ?
+                    TIERS.classify(actual) :
+                    Measure.Completed;
 
             upgradesAndMigrations.insertRow(ctx, GroovyVersionUpgrade.this, measure, version);
         }
     }
 
-    static int parseMajorVersion(String version) {
-        String[] parts = version.split("\\.");
-        return Integer.parseInt(parts[0]);
-    }
-
     @Override
     public List<DevCenterMeasure> getMeasures() {
         return Stream.of(Measure.values())
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter;
+
+import org.openrewrite.DataTable;
+import org.openrewrite.DataTableExecutionContextView;
+import org.openrewrite.DataTableStore;
+import org.openrewrite.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * The data tables in the store by the name of their class, so each card that reads an
+ * upstream data table finds its input tables without comparing against every table in
+ * the store. Built on the first aggregation of a run, and rebuilt when the store has
+ * gained tables since, whether of a new class or a new group of a class already indexed.
+ */
+class InputDataTables {
+    private final DataTableStore store;
+    private final Map<String, List<DataTable<?>>> tablesByClassName = new HashMap<>();
+    private int tablesIndexed;
+
+    private InputDataTables(DataTableStore store) {
+        this.store = store;
+        index();
+    }
+
+    static InputDataTables get(ExecutionContext ctx) {
+        return ctx.computeMessageIfAbsent(InputDataTables.class.getName(),
+                k -> new InputDataTables(DataTableExecutionContextView.view(ctx).getDataTableStore()));
+    }
+
+    /**
+     * @param className The fully qualified class name of the data table.
+     * @return The tables of that class, one per group.
+     */
+    synchronized List<DataTable<?>> tables(String className) {
+        if (store.getDataTables().size() != tablesIndexed) {
+            // A table created after the index was built, such as by a recipe that only
+            // emits rows in a later cycle or at the end of the run.
+            index();
+        }
+        List<DataTable<?>> tables = tablesByClassName.get(className);
+        return tables == null ? emptyList() : tables;
+    }
+
+    private void index() {
+        tablesByClassName.clear();
+        tablesIndexed = 0;
+        for (DataTable<?> dt : store.getDataTables()) {
+            tablesByClassName.computeIfAbsent(dt.getClass().getName(), k -> new ArrayList<>(1)).add(dt);
+            tablesIndexed++;
+        }
+    }
+
+    /**
+     * @return The rows of the table, streamed straight out of the store.
+     */
+    @SuppressWarnings("unchecked")
+    Iterator<?> rows(DataTable<?> table) {
+        Class<? extends DataTable<Object>> dtClass = (Class<? extends DataTable<Object>>) table.getClass();
+        return store.getRows(dtClass, table.getGroup()).iterator();
+    }
+}
@@ -15,9 +15,11 @@
  */
 package io.moderne.devcenter;
 
+import io.moderne.devcenter.internal.VersionNumbers;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.Value;
 import org.intellij.lang.annotations.Language;
 import org.jspecify.annotations.Nullable;
@@ -29,13 +31,19 @@ import org.openrewrite.java.marker.JavaVersion;
 import org.openrewrite.java.tree.J;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
+import static java.util.Collections.unmodifiableList;
 import static java.util.stream.Collectors.toList;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
 public class JavaVersionUpgrade extends UpgradeMigrationCard {
+
+    private static final VersionNumbers.Tiers<Measure> TIERS = VersionNumbers.tiers(Measure.values(), Measure.Completed,
+            measure -> VersionNumbers.of(measure.minimumMajorVersion, 0));
+
     @Option(displayName = "Major version",
             description = "The major version of Java to upgrade to.",
             example = "24")
@@ -57,6 +65,12 @@ public class JavaVersionUpgrade extends UpgradeMigrationCard {
 
     String description = "Determine the current state of a repository relative to a desired Java version upgrade.";
 
+    /**
+     * Built on first use, since the major version never changes.
+     */
+    @ToString.Exclude
+    transient AtomicReference<@Nullable List<DevCenterMeasure>> measures = new AtomicReference<>();
+
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
         return new JavaIsoVisitor<ExecutionContext>() {
@@ -64,24 +78,12 @@ public class JavaVersionUpgrade extends UpgradeMigrationCard {
             public J preVisit(J tree, ExecutionContext ctx) {
                 stopAfterPreVisit();
                 tree.getMarkers().findFirst(JavaVersion.class).ifPresent(javaVersion -> {
-                    Measure measure = Measure.Completed;
                     int actualVersion = javaVersion.getMajorVersion();
-                    if (actualVersion < majorVersion) {
-                        if (actualVersion >= 25) {
-                            measure = Measure.Java25Plus;
-                        } else if (actualVersion >= 21) {
-                            measure = Measure.Java21Plus;
-                        } else if (actualVersion >= 17) {
-                            measure = Measure.Java17Plus;
-                        } else if (actualVersion >= 11) {
-                            measure = Measure.Java11Plus;
-                        } else {
-                            // TODO To keep compatibility with the current visualization,
-                            //  though the project's version may actually be on a version
-                            //  less than 8.
-                            measure = Measure.Java8Plus;
-                        }
-                    }
+                    // TODO To keep compatibility with the current visualization, versions
+                    //  less than 8 fall in the lowest tier, Java8Plus.
+                    Measure measure = actualVersion < majorVersion ?
+                            TIERS.classify(VersionNumbers.of(actualVersion, 0)) :
+                            Measure.Completed;
 
                     upgradesAndMigrations.insertRow(ctx, JavaVersionUpgrade.this,
                             measure, javaVersion.getSourceCompatibility());
@@ -93,9 +95,14 @@ public class JavaVersionUpgrade extends UpgradeMigrationCard {
 
     @Override
     public List<DevCenterMeasure> getMeasures() {
-        return Stream.of(Measure.values())
-                .filter(measure -> measure.minimumMajorVersion < majorVersion)
-                .collect(toList());
+        List<DevCenterMeasure> m = measures.get();
+        if (m == null) {
+            m = unmodifiableList(Stream.of(Measure.values())
+                    .filter(measure -> measure.minimumMajorVersion < majorVersion)
+                    .collect(toList()));
+            measures.set(m);
+        }
+        return m;
     }
 
     @Override
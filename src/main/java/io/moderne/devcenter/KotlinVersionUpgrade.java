@@ -16,6 +16,7 @@
 package io.moderne.devcenter;
 
 import io.moderne.devcenter.internal.ResolvedDependencyVersions;
+import io.moderne.devcenter.internal.VersionNumbers;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -35,6 +36,9 @@ import static java.util.stream.Collectors.toList;
 @EqualsAndHashCode(callSuper = false)
 public class KotlinVersionUpgrade extends UpgradeMigrationCard {
 
+    private static final VersionNumbers.Tiers<Measure> TIERS = VersionNumbers.tiers(Measure.values(), Measure.Completed,
+            measure -> VersionNumbers.of(measure.minimumMajor, measure.minimumMinor));
+
     @Option(displayName = "Target Kotlin version",
             description = "The target Kotlin version to upgrade to, in major.minor format.",
             example = "2.1")
@@ -64,24 +68,13 @@ public class KotlinVersionUpgrade extends UpgradeMigrationCard {
                 if (!(tree instanceof SourceFile)) {
                     return tree;
                 }
-                int[] target = parseVersion(version);
+                long target = VersionNumbers.find(version, false);
                 for (String found : ResolvedDependencyVersions.findVersions((SourceFile) tree, "org.jetbrains.kotlin", "kotlin-stdlib")) {
-                    int[] actual = parseVersion(found);
-                    Measure measure = Measure.Completed;
-                    if (compareMajorMinor(actual, target) < 0) {
-                        if (actual[0] >= 2 && actual[1] >= 1) {
-                            measure = Measure.Kotlin21Plus;
-                        } else if (actual[0] >= 2) {
-                            measure = Measure.Kotlin20Plus;
-                        } else if (actual[1] >= 8) {
-                            measure = Measure.Kotlin18Plus;
-                        } else if (actual[1] >= 6) {
-                            measure = Measure.Kotlin16Plus;
-                        } else {
-                            measure = Measure.Kotlin14Plus;
-                        }
+                    long actual = VersionNumbers.find(found, false);
+                    if (actual == VersionNumbers.NONE) {
+                        continue;
                     }
-
+                    Measure measure = actual < target ? TIERS.classify(actual) : Measure.Completed;
                     upgradesAndMigrations.insertRow(ctx, KotlinVersionUpgrade.this, measure, found);
                 }
                 return tree;
@@ -89,27 +82,11 @@ public class KotlinVersionUpgrade extends UpgradeMigrationCard {
         });
     }
 
-    static int[] parseVersion(String version) {
-        String[] parts = version.split("\\.");
-        return new int[]{
-                Integer.parseInt(parts[0]),
-                parts.length > 1 ? Integer.parseInt(parts[1]) : 0
-        };
-    }
-
-    private static int compareMajorMinor(int[] a, int[] b) {
-        if (a[0] != b[0]) {
-            return Integer.compare(a[0], b[0]);
-        }
-        return Integer.compare(a[1], b[1]);
-    }
-
     @Override
     public List<DevCenterMeasure> getMeasures() {
-        int[] target = parseVersion(version);
+        long target = VersionNumbers.find(version, false);
         return Stream.of(Measure.values())
-                .filter(measure -> compareMajorMinor(
-                        new int[]{measure.minimumMajor, measure.minimumMinor}, target) < 0)
+                .filter(measure -> VersionNumbers.of(measure.minimumMajor, measure.minimumMinor) < target)
                 .collect(toList());
     }
 
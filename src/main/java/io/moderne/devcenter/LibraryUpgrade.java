@@ -16,7 +16,10 @@
 package io.moderne.devcenter;
 
 import io.moderne.devcenter.internal.ResolvedDependencyVersions;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
@@ -25,6 +28,7 @@ import org.openrewrite.maven.search.FindMavenProject;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
@@ -59,6 +63,13 @@ public class LibraryUpgrade extends UpgradeMigrationCard {
 
     String displayName = "Library upgrade";
 
+    /**
+     * Built on first use, since the target version never changes.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    transient AtomicReference<@Nullable SemverRowBuilder> rowBuilder = new AtomicReference<>();
+
     @Override
     public String getInstanceName() {
         return getCardName();
@@ -75,9 +86,9 @@ public class LibraryUpgrade extends UpgradeMigrationCard {
                 if (!(tree instanceof SourceFile)) {
                     return tree;
                 }
-                SemverRowBuilder rowBuilder = new SemverRowBuilder(cardName, version);
+                SemverRowBuilder builder = SemverRowBuilder.memoized(rowBuilder, cardName, version);
                 for (String found : ResolvedDependencyVersions.findVersions((SourceFile) tree, groupIdPattern, artifactIdPattern)) {
-                    upgradesAndMigrations.insertRow(ctx, rowBuilder.getRow(found));
+                    upgradesAndMigrations.insertRow(ctx, builder.getRow(found));
                 }
                 return tree;
             }
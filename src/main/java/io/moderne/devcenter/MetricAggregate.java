@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter;
+
+import io.moderne.devcenter.internal.NumericValues;
+import io.moderne.devcenter.internal.QuantileSketch;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The numeric values of a {@link BucketedMetricCard} column, summarized so that the
+ * summaries of many repositories can be merged into a true average and percentiles
+ * for an organization, rather than only a count of repositories per bucket.
+ */
+public final class MetricAggregate {
+    private final QuantileSketch sketch;
+    private double sum;
+
+    public MetricAggregate() {
+        this(new QuantileSketch(), 0);
+    }
+
+    private MetricAggregate(QuantileSketch sketch, double sum) {
+        this.sketch = sketch;
+        this.sum = sum;
+    }
+
+    /**
+     * @param value The raw value of the column in a row, which is skipped unless it is numeric.
+     */
+    public void accept(@Nullable Object value) {
+        add(NumericValues.toDouble(value));
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        sketch.add(value);
+        sum += value;
+    }
+
+    public void merge(MetricAggregate other) {
+        sketch.merge(other.sketch);
+        sum += other.sum;
+    }
+
+    public long getCount() {
+        return sketch.getCount();
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public @Nullable Double getMin() {
+        return sketch.getMin();
+    }
+
+    public @Nullable Double getMax() {
+        return sketch.getMax();
+    }
+
+    public @Nullable Double getAverage() {
+        return getCount() == 0 ? null : sum / getCount();
+    }
+
+    /**
+     * @param q A quantile between 0 and 1.
+     * @return The value at that quantile, to within {@link QuantileSketch#RELATIVE_ACCURACY}.
+     */
+    public @Nullable Double quantile(double q) {
+        return sketch.quantile(q);
+    }
+
+    /**
+     * @return The quantile sketch as a compact string, see {@link #fromSerialized(double, String)}.
+     */
+    public String serializeSketch() {
+        return sketch.serialize();
+    }
+
+    public static MetricAggregate fromSerialized(double sum, String sketch) {
+        return new MetricAggregate(QuantileSketch.deserialize(sketch), sum);
+    }
+}
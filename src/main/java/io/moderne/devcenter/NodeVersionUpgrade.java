@@ -15,6 +15,7 @@
  */
 package io.moderne.devcenter;
 
+import io.moderne.devcenter.internal.VersionNumbers;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -26,8 +27,6 @@ import org.openrewrite.javascript.marker.NodeResolutionResult;
 
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
@@ -36,10 +35,10 @@ import static java.util.stream.Collectors.toList;
 @EqualsAndHashCode(callSuper = false)
 public class NodeVersionUpgrade extends UpgradeMigrationCard {
 
-    private static final Pattern VERSION_PATTERN =
-            Pattern.compile("(?:>=|[~^]|>)\\s*v?(\\d+)");
-    private static final Pattern BARE_VERSION_PATTERN =
-            Pattern.compile("v?(\\d+)");
+    private static final String[] LOWER_BOUND_OPERATORS = {">=", "~", "^", ">"};
+
+    private static final VersionNumbers.Tiers<Measure> TIERS = VersionNumbers.tiers(Measure.values(), Measure.Completed,
+            measure -> VersionNumbers.of(measure.minimumMajorVersion, 0));
 
     @Option(displayName = "Major version",
             description = "The major version of Node.js to upgrade to.",
@@ -75,22 +74,9 @@ public class NodeVersionUpgrade extends UpgradeMigrationCard {
                             if (nodeConstraint != null) {
                                 int actualVersion = parseMajorVersion(nodeConstraint);
                                 if (actualVersion >= 0) {
-                                    Measure measure = Measure.Completed;
-                                    if (actualVersion < majorVersion) {
-                                        if (actualVersion >= 24) {
-                                            measure = Measure.Node24Plus;
-                                        } else if (actualVersion >= 22) {
-                                            measure = Measure.Node22Plus;
-                                        } else if (actualVersion >= 20) {
-                                            measure = Measure.Node20Plus;
-                                        } else if (actualVersion >= 18) {
-                                            measure = Measure.Node18Plus;
-                                        } else if (actualVersion >= 16) {
-                                            measure = Measure.Node16Plus;
-                                        } else {
-                                            measure = Measure.Node14Plus;
-                                        }
-                                    }
+                                    Measure measure = actualVersion < majorVersion ?
+                                            TIERS.classify(VersionNumbers.of(actualVersion, 0)) :
+                                            Measure.Completed;
 
                                     upgradesAndMigrations.insertRow(ctx, NodeVersionUpgrade.this,
                                             measure, String.valueOf(actualVersion));
@@ -105,15 +91,11 @@ public class NodeVersionUpgrade extends UpgradeMigrationCard {
     }
 
     static int parseMajorVersion(String nodeConstraint) {
-        Matcher m = VERSION_PATTERN.matcher(nodeConstraint);
-        if (m.find()) {
-            return Integer.parseInt(m.group(1));
-        }
-        m = BARE_VERSION_PATTERN.matcher(nodeConstraint);
-        if (m.find()) {
-            return Integer.parseInt(m.group(1));
+        long version = VersionNumbers.findAfterOperator(nodeConstraint, LOWER_BOUND_OPERATORS, false);
+        if (version == VersionNumbers.NONE) {
+            version = VersionNumbers.find(nodeConstraint, false);
         }
-        return -1;
+        return version == VersionNumbers.NONE ? -1 : VersionNumbers.major(version);
     }
 
     @Override
@@ -15,7 +15,10 @@
  */
 package io.moderne.devcenter;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
@@ -25,6 +28,7 @@ import org.openrewrite.maven.tree.Parent;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.openrewrite.internal.StringUtils.matchesGlob;
 
@@ -61,6 +65,13 @@ public class ParentPomUpgrade extends UpgradeMigrationCard {
 
     String displayName = "Parent POM upgrade";
 
+    /**
+     * Built on first use, since the target version never changes.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    transient AtomicReference<@Nullable SemverRowBuilder> rowBuilder = new AtomicReference<>();
+
     @Override
     public String getInstanceName() {
         return getCardName();
@@ -77,14 +88,14 @@ public class ParentPomUpgrade extends UpgradeMigrationCard {
                 if (!(tree instanceof SourceFile)) {
                     return tree;
                 }
-                SemverRowBuilder rowBuilder = new SemverRowBuilder(cardName, version);
+                SemverRowBuilder builder = SemverRowBuilder.memoized(rowBuilder, cardName, version);
                 ((SourceFile) tree).getMarkers().findFirst(MavenResolutionResult.class).ifPresent(mrr -> {
                     Parent parent = mrr.getPom().getRequested().getParent();
                     if (parent != null &&
                         matchesGlob(parent.getGroupId(), groupIdPattern) &&
                         matchesGlob(parent.getArtifactId(), artifactIdPattern) &&
                         parent.getVersion() != null) {
-                        upgradesAndMigrations.insertRow(ctx, rowBuilder.getRow(parent.getVersion()));
+                        upgradesAndMigrations.insertRow(ctx, builder.getRow(parent.getVersion()));
                     }
                 });
                 return tree;
@@ -15,6 +15,7 @@
  */
 package io.moderne.devcenter;
 
+import io.moderne.devcenter.internal.VersionNumbers;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -25,8 +26,6 @@ import org.openrewrite.*;
 import org.openrewrite.python.marker.PythonResolutionResult;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
@@ -35,10 +34,30 @@ import static java.util.stream.Collectors.toList;
 @EqualsAndHashCode(callSuper = false)
 public class PythonVersionUpgrade extends UpgradeMigrationCard {
 
-    private static final Pattern VERSION_PATTERN =
-            Pattern.compile("(?:>=|~=|==|>)\\s*(\\d+)\\.(\\d+)");
-    private static final Pattern BARE_VERSION_PATTERN =
-            Pattern.compile("(\\d+)\\.(\\d+)");
+    private static final String[] LOWER_BOUND_OPERATORS = {">=", "~=", "==", ">"};
+
+    /**
+     * Every Python 3 version before 3.8 falls in the lowest Python 3 tier.
+     */
+    private static final VersionNumbers.Tiers<Measure> TIERS = new VersionNumbers.Tiers<>(
+            new long[]{
+                    VersionNumbers.of(0, 0),
+                    VersionNumbers.of(3, 0),
+                    VersionNumbers.of(3, 9),
+                    VersionNumbers.of(3, 10),
+                    VersionNumbers.of(3, 11),
+                    VersionNumbers.of(3, 12),
+                    VersionNumbers.of(3, 13)
+            },
+            new Measure[]{
+                    Measure.Python2,
+                    Measure.Python38Plus,
+                    Measure.Python39Plus,
+                    Measure.Python310Plus,
+                    Measure.Python311Plus,
+                    Measure.Python312Plus,
+                    Measure.Python313Plus
+            });
 
     @Option(displayName = "Minor version",
             description = "The minor version of Python 3 to upgrade to.",
@@ -69,32 +88,14 @@ public class PythonVersionUpgrade extends UpgradeMigrationCard {
                     tree.getMarkers().findFirst(PythonResolutionResult.class).ifPresent(result -> {
                         String requiresPython = result.getRequiresPython();
                         if (requiresPython != null) {
-                            int[] version = parseMinimumVersion(requiresPython);
-                            if (version != null) {
-                                int major = version[0];
-                                int minor = version[1];
-
-                                Measure measure = Measure.Completed;
-                                if (major < 3 || (major == 3 && minor < minorVersion)) {
-                                    if (major < 3) {
-                                        measure = Measure.Python2;
-                                    } else if (minor >= 13) {
-                                        measure = Measure.Python313Plus;
-                                    } else if (minor >= 12) {
-                                        measure = Measure.Python312Plus;
-                                    } else if (minor >= 11) {
-                                        measure = Measure.Python311Plus;
-                                    } else if (minor >= 10) {
-                                        measure = Measure.Python310Plus;
-                                    } else if (minor >= 9) {
-                                        measure = Measure.Python39Plus;
-                                    } else {
-                                        measure = Measure.Python38Plus;
-                                    }
-                                }
+                            long version = parseMinimumVersion(requiresPython);
+                            if (version != VersionNumbers.NONE) {
+                                Measure measure = version < VersionNumbers.of(3, minorVersion) ?
+                                        TIERS.classify(version) :
+                                        Measure.Completed;
 
                                 upgradesAndMigrations.insertRow(ctx, PythonVersionUpgrade.this,
-                                        measure, major + "." + minor);
+                                        measure, VersionNumbers.major(version) + "." + VersionNumbers.minor(version));
                             }
                         }
                     });
@@ -104,16 +105,9 @@ public class PythonVersionUpgrade extends UpgradeMigrationCard {
         };
     }
 
-    static int @Nullable [] parseMinimumVersion(String requiresPython) {
-        Matcher m = VERSION_PATTERN.matcher(requiresPython);
-        if (m.find()) {
-            return new int[]{Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))};
-        }
-        m = BARE_VERSION_PATTERN.matcher(requiresPython);
-        if (m.find()) {
-            return new int[]{Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))};
-        }
-        return null;
+    static long parseMinimumVersion(String requiresPython) {
+        long version = VersionNumbers.findAfterOperator(requiresPython, LOWER_BOUND_OPERATORS, true);
+        return version != VersionNumbers.NONE ? version : VersionNumbers.find(requiresPython, true);
     }
 
     @Override
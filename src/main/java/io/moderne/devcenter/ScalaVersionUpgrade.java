@@ -16,6 +16,7 @@
 package io.moderne.devcenter;
 
 import io.moderne.devcenter.internal.ResolvedDependencyVersions;
+import io.moderne.devcenter.internal.VersionNumbers;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -35,6 +36,9 @@ import static java.util.stream.Collectors.toList;
 @EqualsAndHashCode(callSuper = false)
 public class ScalaVersionUpgrade extends UpgradeMigrationCard {
 
+    private static final VersionNumbers.Tiers<Measure> TIERS = VersionNumbers.tiers(Measure.values(), Measure.Completed,
+            measure -> VersionNumbers.of(measure.minimumMajorVersion, measure.minimumMinorVersion));
+
     @Option(displayName = "Major version",
             description = "The major version of Scala to upgrade to.",
             example = "3")
@@ -81,40 +85,19 @@ public class ScalaVersionUpgrade extends UpgradeMigrationCard {
     private boolean emitMeasures(ExecutionContext ctx, SourceFile source, String groupId, String artifactId) {
         List<String> versions = ResolvedDependencyVersions.findVersions(source, groupId, artifactId);
         for (String version : versions) {
-            int actualMajor = parseMajorVersion(version);
-            Measure measure = Measure.Completed;
-            if (actualMajor < majorVersion) {
-                if (actualMajor >= 3) {
-                    measure = Measure.Scala3Plus;
-                } else if (actualMajor == 2) {
-                    int actualMinor = parseMinorVersion(version);
-                    if (actualMinor >= 13) {
-                        measure = Measure.Scala213Plus;
-                    } else if (actualMinor >= 12) {
-                        measure = Measure.Scala212Plus;
-                    } else {
-                        measure = Measure.Scala211Plus;
-                    }
-                } else {
-                    measure = Measure.Scala211Plus;
-                }
+            long actual = VersionNumbers.find(version, false);
+            if (actual == VersionNumbers.NONE) {
+                continue;
             }
+            Measure measure = VersionNumbers.major(actual) < majorVersion ?
+                    TIERS.classify(actual) :
+                    Measure.Completed;
 
             upgradesAndMigrations.insertRow(ctx, ScalaVersionUpgrade.this, measure, version);
         }
         return !versions.isEmpty();
     }
 
-    static int parseMajorVersion(String version) {
-        String[] parts = version.split("\\.");
-        return Integer.parseInt(parts[0]);
-    }
-
-    static int parseMinorVersion(String version) {
-        String[] parts = version.split("\\.");
-        return parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
-    }
-
     @Override
     public List<DevCenterMeasure> getMeasures() {
         return Stream.of(Measure.values())
@@ -130,14 +113,15 @@ public class ScalaVersionUpgrade extends UpgradeMigrationCard {
     @Getter
     @RequiredArgsConstructor
     public enum Measure implements DevCenterMeasure {
-        Scala211Plus("Scala 2.11+", "Scala 2.11 and later", 2),
-        Scala212Plus("Scala 2.12+", "Scala 2.12 and later", 2),
-        Scala213Plus("Scala 2.13+", "Scala 2.13 and later", 2),
-        Scala3Plus("Scala 3+", "Scala 3 and later", 3),
-        Completed("Completed", "The upgrade to the desired Scala version is already complete.", 0);
+        Scala211Plus("Scala 2.11+", "Scala 2.11 and later", 2, 11),
+        Scala212Plus("Scala 2.12+", "Scala 2.12 and later", 2, 12),
+        Scala213Plus("Scala 2.13+", "Scala 2.13 and later", 2, 13),
+        Scala3Plus("Scala 3+", "Scala 3 and later", 3, 0),
+        Completed("Completed", "The upgrade to the desired Scala version is already complete.", 0, 0);
 
         private final @Language("markdown") String name;
         private final @Language("markdown") String description;
         private final int minimumMajorVersion;
+        private final int minimumMinorVersion;
     }
 }
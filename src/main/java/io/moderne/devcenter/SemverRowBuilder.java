@@ -16,26 +16,83 @@
 package io.moderne.devcenter;
 
 import io.moderne.devcenter.table.UpgradesAndMigrations;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.java.dependencies.internal.Version;
 import org.openrewrite.java.dependencies.internal.VersionParser;
 import org.openrewrite.semver.Semver;
 import org.openrewrite.semver.VersionComparator;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Classifies found versions against a target version. The comparators only depend on the
+ * target, so they are compiled once when the builder is constructed, and cards keep one
+ * builder for as long as the recipe instance lives rather than building one per source file.
+ */
 public class SemverRowBuilder {
     // Lazy initialization to avoid class loading failures poisoning SemverRowBuilder's static initialization
     private static class ParserHolder {
         static final VersionParser INSTANCE = new VersionParser();
     }
 
+    /**
+     * Enough to hold every distinct version of a library or build tool that a typical
+     * repository resolves, while bounding what a card holds on to.
+     */
+    static final int MEMO_SIZE = 256;
+
     private final String cardName;
     private long major;
     private long minor;
     private long patch;
 
+    /**
+     * {@code null} when the range is not valid for the target version, which is only
+     * reported if a version actually has to be classified by it.
+     */
+    private final @Nullable VersionComparator majorComparator;
+    private final @Nullable VersionComparator minorComparator;
+    private final @Nullable VersionComparator patchComparator;
+
+    final Map<String, SemverMeasure> memo = Collections.synchronizedMap(
+            new LinkedHashMap<String, SemverMeasure>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SemverMeasure> eldest) {
+                    return size() > MEMO_SIZE;
+                }
+            });
+
     public SemverRowBuilder(String cardName, String version) {
         this.cardName = cardName;
+        parseTargetVersion(version);
+        this.majorComparator = Semver.validate(0 + "-" + (major - 1) + ".999", null).getValue();
+        this.minorComparator = Semver.validate(major + "-" + major + "." + (minor - 1) + ".999", null).getValue();
+        this.patchComparator = Semver.validate(
+                (major + "." + minor + ".0") + "-" + (major + "." + minor + "." + (patch - 1)),
+                null).getValue();
+    }
+
+    /**
+     * @param holder   Where a card keeps its builder, which is empty until the first use.
+     * @param cardName The card's name.
+     * @param version  The card's target version.
+     * @return The card's builder.
+     */
+    static SemverRowBuilder memoized(AtomicReference<@Nullable SemverRowBuilder> holder, String cardName, String version) {
+        SemverRowBuilder b = holder.get();
+        if (b == null) {
+            b = new SemverRowBuilder(cardName, version);
+            holder.set(b);
+        }
+        return b;
+    }
+
+    private void parseTargetVersion(String version) {
         Version parsed = ParserHolder.INSTANCE.transform(version);
         Long[] numericParts = parsed.getNumericParts();
         for (int i = 0; i < numericParts.length; i++) {
@@ -61,26 +118,24 @@ public class SemverRowBuilder {
     }
 
     public UpgradesAndMigrations.Row getRow(String v) {
-        VersionComparator majorComparator = requireNonNull(Semver.validate(0 + "-" + (major - 1) + ".999", null)
-                .getValue());
-        if (majorComparator.isValid(null, v)) {
-            return new UpgradesAndMigrations.Row(cardName, SemverMeasure.Major.ordinal(), SemverMeasure.Major.toString(), v);
+        SemverMeasure measure = memo.get(v);
+        if (measure == null) {
+            measure = classify(v);
+            memo.put(v, measure);
         }
+        return new UpgradesAndMigrations.Row(cardName, measure.ordinal(), measure.toString(), v);
+    }
 
-        VersionComparator minorComparator = requireNonNull(Semver.validate(
-                major + "-" + major + "." + (minor - 1) + ".999",
-                null).getValue());
-        if (minorComparator.isValid(null, v)) {
-            return new UpgradesAndMigrations.Row(cardName, SemverMeasure.Minor.ordinal(), SemverMeasure.Minor.toString(), v);
+    private SemverMeasure classify(String v) {
+        if (requireNonNull(majorComparator).isValid(null, v)) {
+            return SemverMeasure.Major;
         }
-
-        VersionComparator patchComparator = requireNonNull(Semver.validate(
-                (major + "." + minor + ".0") + "-" + (major + "." + minor + "." + (patch - 1)),
-                null).getValue());
-        if (patchComparator.isValid(null, v)) {
-            return new UpgradesAndMigrations.Row(cardName, SemverMeasure.Patch.ordinal(), SemverMeasure.Patch.toString(), v);
+        if (requireNonNull(minorComparator).isValid(null, v)) {
+            return SemverMeasure.Minor;
         }
-
-        return new UpgradesAndMigrations.Row(cardName, SemverMeasure.Completed.ordinal(), SemverMeasure.Completed.toString(), v);
+        if (requireNonNull(patchComparator).isValid(null, v)) {
+            return SemverMeasure.Patch;
+        }
+        return SemverMeasure.Completed;
     }
 }
@@ -34,6 +34,14 @@ public abstract class UpgradeMigrationCard extends Recipe {
         return getMeasures().indexOf(measure);
     }
 
+    /**
+     * @return Whether a repository counts once towards the measure it is in, or counts
+     * every occurrence in each of the measures.
+     */
+    public DevCenter.Aggregation getCardAggregation() {
+        return DevCenter.Aggregation.PER_REPOSITORY;
+    }
+
     @Override
     public void onComplete(ExecutionContext ctx) {
         super.onComplete(ctx);
@@ -0,0 +1,526 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.internal;
+
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A prebuilt index of vulnerability advisories by group and artifact, read through a
+ * memory-mapped file rather than deserialized onto the heap. Every JVM that opens the
+ * same index file shares its pages through the operating system's page cache, and each
+ * JVM maps a given file only once.
+ * <p>
+ * Layout (all integers big-endian):
+ * <pre>{@code
+ * int    magic ("DCAI")
+ * short  format version
+ * int    group and artifact count G
+ * int    advisory count A
+ * G x    long hash of "group:artifact", ascending
+ * G x    int key offset into the string pool, int first advisory, int advisory count
+ * A x    long introduced, long fixed, long last affected, int fixed version offset
+ *        into the string pool (-1 when absent), byte severity, double EPSS (NaN when absent)
+ * bytes  string pool (int length + UTF-8)
+ * }</pre>
+ * The advisories of a group and artifact are contiguous and ordered by the version they
+ * were introduced in, and versions are stored as {@link #encodeVersion(String) encoded}
+ * longs, so looking up the advisories that affect a version is a pair of binary searches
+ * over primitives that allocates nothing.
+ */
+public final class AdvisoryIndex {
+    private static final int MAGIC = 0x44434149;
+    private static final short FORMAT_VERSION = 2;
+
+    private static final int HEADER_BYTES = 4 + 2 + 4 + 4;
+    private static final int GROUP_ARTIFACT_BYTES = 4 + 4 + 4;
+    private static final int ADVISORY_BYTES = 8 + 8 + 8 + 4 + 1 + 8;
+
+    private static final long NO_INTRODUCED = -1;
+    private static final long NO_UPPER_BOUND = Long.MAX_VALUE;
+
+    /**
+     * Larger numbers already need more bits than an encoded version has, so clamping to this
+     * changes nothing about how they order.
+     */
+    private static final long MAX_NUMBER = 1L << 40;
+
+    private static final String[] SEVERITIES = {"Critical", "High", "Moderate", "Low"};
+
+    private static final Map<Path, AdvisoryIndex> OPEN = new ConcurrentHashMap<>();
+
+    /**
+     * Only read with absolute gets, so it is safe to share between threads.
+     */
+    private final ByteBuffer buffer;
+
+    private final int groupArtifactCount;
+    private final int groupArtifactsOffset;
+    private final int advisoriesOffset;
+    private final int poolOffset;
+
+    private AdvisoryIndex(ByteBuffer buffer, Path index) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an advisory index: " + index);
+        }
+        short formatVersion = buffer.getShort(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported advisory index version " + formatVersion + ": " + index);
+        }
+        this.groupArtifactCount = buffer.getInt(6);
+        int advisoryCount = buffer.getInt(10);
+        this.groupArtifactsOffset = HEADER_BYTES + groupArtifactCount * 8;
+        this.advisoriesOffset = groupArtifactsOffset + groupArtifactCount * GROUP_ARTIFACT_BYTES;
+        this.poolOffset = advisoriesOffset + advisoryCount * ADVISORY_BYTES;
+    }
+
+    /**
+     * @param index A file written by {@link #write(Collection, Path)}, which is expected not
+     *              to change once written.
+     * @return The index, mapped once per JVM.
+     * @throws UncheckedIOException if the index cannot be read.
+     */
+    public static AdvisoryIndex open(Path index) {
+        return OPEN.computeIfAbsent(index.toAbsolutePath().normalize(), p -> {
+            try (FileChannel channel = FileChannel.open(p, StandardOpenOption.READ)) {
+                return new AdvisoryIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), p);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read advisory index " + p, e);
+            }
+        });
+    }
+
+    /**
+     * @return The position of the group and artifact in the index, or -1 if it has no advisories.
+     */
+    public int find(String groupId, String artifactId) {
+        long hash = hash(groupId, artifactId);
+        int low = 0;
+        int high = groupArtifactCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midHash = buffer.getLong(HEADER_BYTES + mid * 8);
+            if (midHash < hash) {
+                low = mid + 1;
+            } else if (midHash > hash) {
+                high = mid - 1;
+            } else {
+                // Back up to the first entry with this hash, then check each for a true match
+                while (mid > 0 && buffer.getLong(HEADER_BYTES + (mid - 1) * 8) == hash) {
+                    mid--;
+                }
+                for (; mid < groupArtifactCount && buffer.getLong(HEADER_BYTES + mid * 8) == hash; mid++) {
+                    if (keyEquals(buffer.getInt(groupArtifactsOffset + mid * GROUP_ARTIFACT_BYTES), groupId, artifactId)) {
+                        return mid;
+                    }
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param groupArtifact A position returned by {@link #find(String, String)}.
+     * @return The first advisory of the group and artifact.
+     */
+    public int firstAdvisory(int groupArtifact) {
+        return buffer.getInt(groupArtifactsOffset + groupArtifact * GROUP_ARTIFACT_BYTES + 4);
+    }
+
+    /**
+     * @param groupArtifact A position returned by {@link #find(String, String)}.
+     * @param version       An {@link #encodeVersion(String) encoded} version.
+     * @return One past the last advisory of the group and artifact that was introduced at or
+     * before the version. Only the advisories from {@link #firstAdvisory(int)} up to this one
+     * can affect the version.
+     */
+    public int endOfAdvisories(int groupArtifact, long version) {
+        int low = firstAdvisory(groupArtifact);
+        int high = low + buffer.getInt(groupArtifactsOffset + groupArtifact * GROUP_ARTIFACT_BYTES + 8);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getLong(advisory(mid)) <= version) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param version An {@link #encodeVersion(String) encoded} version that the advisory was
+     *                introduced at or before.
+     * @return Whether the version is affected by the advisory.
+     */
+    public boolean affects(int advisory, long version) {
+        int offset = advisory(advisory);
+        return version < buffer.getLong(offset + 8) && version <= buffer.getLong(offset + 16);
+    }
+
+    public @Nullable String getFixedVersion(int advisory) {
+        return string(buffer.getInt(advisory(advisory) + 24));
+    }
+
+    public boolean hasLastAffectedVersion(int advisory) {
+        return buffer.getLong(advisory(advisory) + 16) != NO_UPPER_BOUND;
+    }
+
+    public String getSeverity(int advisory) {
+        return SEVERITIES[buffer.get(advisory(advisory) + 28)];
+    }
+
+    public @Nullable Double getEpss(int advisory) {
+        double epss = buffer.getDouble(advisory(advisory) + 29);
+        return Double.isNaN(epss) ? null : epss;
+    }
+
+    private int advisory(int advisory) {
+        return advisoriesOffset + advisory * ADVISORY_BYTES;
+    }
+
+    private @Nullable String string(int offset) {
+        if (offset < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.getInt(poolOffset + offset)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(poolOffset + offset + 4 + i);
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    private boolean keyEquals(int offset, String groupId, String artifactId) {
+        int start = poolOffset + offset + 4;
+        int length = buffer.getInt(poolOffset + offset);
+        if (length != groupId.length() + 1 + artifactId.length()) {
+            // Either not a match, or not all ASCII, in which case the slow comparison decides
+            return !isAscii(groupId) || !isAscii(artifactId) ? (groupId + ":" + artifactId).equals(string(offset)) : false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = i < groupId.length() ? groupId.charAt(i) :
+                    i == groupId.length() ? ':' : artifactId.charAt(i - groupId.length() - 1);
+            if (c >= 0x80) {
+                return (groupId + ":" + artifactId).equals(string(offset));
+            }
+            if (buffer.get(start + i) != (byte) c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a over the characters of "group:artifact", computed without building that string.
+     */
+    static long hash(String groupId, String artifactId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < groupId.length(); i++) {
+            h = (h ^ groupId.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ ':') * 0x100000001b3L;
+        for (int i = 0; i < artifactId.length(); i++) {
+            h = (h ^ artifactId.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * Encodes a version so that comparing two encoded versions orders them the way Maven
+     * would, for the versions that advisories are published against.
+     * <p>
+     * Trailing zero parts are dropped, so {@code 1.2} and {@code 1.2.0} encode the same. Each
+     * remaining numeric part is written as a 1 bit and then the number, and the qualifier as a
+     * 0 bit, so that {@code 1.2-sp1} orders after {@code 1.2} but before {@code 1.2.0.1}. The
+     * qualifier is its rank (alpha, beta, milestone, release candidate, snapshot, release,
+     * service pack, and then any other qualifier) and then its trailing number, like the 2 of
+     * {@code rc2}. Numbers take more bits the larger they are, using a code that orders the
+     * same way the numbers do, so there is no limit to the number of parts or their size.
+     * <p>
+     * Only the first 63 bits are kept, so versions that differ only beyond that, which takes
+     * a great many parts or numbers in the billions, encode the same. So do qualifiers that
+     * are not ranked, which Maven would order alphabetically.
+     *
+     * @return A non-negative encoding of the version.
+     */
+    public static long encodeVersion(String version) {
+        // Find where the numeric parts end, and where the last of them that is not zero ends
+        int qualifier = 0;
+        int significant = 0;
+        while (isDigit(version, qualifier)) {
+            int end = digitsEnd(version, qualifier);
+            if (number(version, qualifier, end) != 0) {
+                significant = end;
+            }
+            qualifier = end;
+            if (!isPartSeparator(version, qualifier) || !isDigit(version, qualifier + 1)) {
+                break;
+            }
+            qualifier++;
+        }
+
+        Bits bits = new Bits();
+        for (int i = 0; i < significant; i = digitsEnd(version, i) + 1) {
+            bits.write(1, 1);
+            bits.writeNumber(number(version, i, digitsEnd(version, i)));
+        }
+        bits.write(0, 1);
+        bits.write(qualifierRank(version, qualifier), 3);
+        bits.writeNumber(qualifierNumber(version, qualifier));
+        return bits.encoded;
+    }
+
+    /**
+     * The bits of an encoded version, written from the most significant bit down.
+     */
+    private static class Bits {
+        long encoded;
+        int free = 63;
+
+        /**
+         * Writes the low {@code n} bits of the value, dropping those that no longer fit.
+         */
+        void write(long value, int n) {
+            if (n > free) {
+                value >>>= n - free;
+                n = free;
+            }
+            free -= n;
+            encoded |= value << free;
+        }
+
+        /**
+         * Writes a number as one 1 bit for each binary digit after the leading one of
+         * {@code number + 1}, then a 0 bit, and then those digits. A larger number either has
+         * more digits, and so more leading 1 bits, or as many and larger ones, so the bits order
+         * the same way the numbers do.
+         */
+        void writeNumber(long number) {
+            long n = number + 1;
+            int digits = 63 - Long.numberOfLeadingZeros(n);
+            long mask = (1L << digits) - 1;
+            write(mask, digits);
+            write(0, 1);
+            write(n & mask, digits);
+        }
+    }
+
+    private static int qualifierRank(String version, int start) {
+        start = skipPartSeparators(version, start);
+        int length = version.length() - start;
+        if (length == 0 || is(version, start, "ga") || is(version, start, "final") || is(version, start, "release")) {
+            return 5;
+        } else if (is(version, start, "alpha") || isShort(version, start, 'a')) {
+            return 0;
+        } else if (is(version, start, "beta") || isShort(version, start, 'b')) {
+            return 1;
+        } else if (is(version, start, "milestone") || isShort(version, start, 'm')) {
+            return 2;
+        } else if (is(version, start, "rc") || is(version, start, "cr")) {
+            return 3;
+        } else if (is(version, start, "snapshot")) {
+            return 4;
+        } else if (is(version, start, "sp")) {
+            return 6;
+        }
+        return 7;
+    }
+
+    /**
+     * @return The number that follows the letters of the qualifier, like the 2 of {@code rc2}
+     * or {@code beta-2}, or 0 when there is none.
+     */
+    private static long qualifierNumber(String version, int start) {
+        int i = skipPartSeparators(version, start);
+        while (i < version.length() && Character.isLetter(version.charAt(i))) {
+            i++;
+        }
+        i = skipPartSeparators(version, i);
+        return number(version, i, digitsEnd(version, i));
+    }
+
+    private static boolean is(String version, int start, String qualifier) {
+        return version.regionMatches(true, start, qualifier, 0, qualifier.length());
+    }
+
+    /**
+     * A single letter qualifier directly followed by a number, like the {@code M1} of {@code 6.0.0-M1}.
+     */
+    private static boolean isShort(String version, int start, char qualifier) {
+        return start + 1 < version.length() &&
+               Character.toLowerCase(version.charAt(start)) == qualifier &&
+               Character.isDigit(version.charAt(start + 1));
+    }
+
+    private static boolean isDigit(String version, int i) {
+        return i < version.length() && version.charAt(i) >= '0' && version.charAt(i) <= '9';
+    }
+
+    private static boolean isPartSeparator(String version, int i) {
+        return i < version.length() && (version.charAt(i) == '.' || version.charAt(i) == '-');
+    }
+
+    private static int skipPartSeparators(String version, int i) {
+        while (isPartSeparator(version, i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int digitsEnd(String version, int i) {
+        while (isDigit(version, i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long number(String version, int start, int end) {
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            number = Math.min(number * 10 + (version.charAt(i) - '0'), MAX_NUMBER);
+        }
+        return number;
+    }
+
+    /**
+     * Writes an index of the advisories, to later be {@link #open(Path) opened}.
+     */
+    public static void write(Collection<Advisory> advisories, Path index) throws IOException {
+        Map<String, List<Advisory>> byGroupArtifact = new HashMap<>();
+        for (Advisory advisory : advisories) {
+            byGroupArtifact.computeIfAbsent(advisory.getGroupId() + ":" + advisory.getArtifactId(),
+                    k -> new ArrayList<>()).add(advisory);
+        }
+
+        List<Advisory> firsts = new ArrayList<>(byGroupArtifact.size());
+        for (List<Advisory> a : byGroupArtifact.values()) {
+            a.sort(Comparator.comparingLong(AdvisoryIndex::introduced));
+            firsts.add(a.get(0));
+        }
+        firsts.sort(Comparator.comparingLong((Advisory a) -> hash(a.getGroupId(), a.getArtifactId()))
+                .thenComparing(a -> a.getGroupId() + ":" + a.getArtifactId()));
+
+        Map<String, Integer> pool = new LinkedHashMap<>();
+        int[] poolSize = {0};
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeInt(firsts.size());
+            out.writeInt(advisories.size());
+            for (Advisory first : firsts) {
+                out.writeLong(hash(first.getGroupId(), first.getArtifactId()));
+            }
+            int advisory = 0;
+            for (Advisory first : firsts) {
+                String key = first.getGroupId() + ":" + first.getArtifactId();
+                out.writeInt(poolOffset(pool, poolSize, key));
+                out.writeInt(advisory);
+                int count = byGroupArtifact.get(key).size();
+                out.writeInt(count);
+                advisory += count;
+            }
+            for (Advisory first : firsts) {
+                for (Advisory a : byGroupArtifact.get(first.getGroupId() + ":" + first.getArtifactId())) {
+                    out.writeLong(introduced(a));
+                    out.writeLong(a.getFixedVersion() == null ? NO_UPPER_BOUND : encodeVersion(a.getFixedVersion()));
+                    out.writeLong(a.getLastAffectedVersion() == null ? NO_UPPER_BOUND : encodeVersion(a.getLastAffectedVersion()));
+                    out.writeInt(a.getFixedVersion() == null ? -1 : poolOffset(pool, poolSize, a.getFixedVersion()));
+                    out.writeByte(severity(a.getSeverity()));
+                    out.writeDouble(a.getEpss() == null ? Double.NaN : a.getEpss());
+                }
+            }
+            for (String s : pool.keySet()) {
+                byte[] bytes = s.getBytes(UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static long introduced(Advisory advisory) {
+        return advisory.getIntroducedVersion() == null ? NO_INTRODUCED : encodeVersion(advisory.getIntroducedVersion());
+    }
+
+    private static int poolOffset(Map<String, Integer> pool, int[] poolSize, String s) {
+        Integer offset = pool.get(s);
+        if (offset == null) {
+            offset = poolSize[0];
+            pool.put(s, offset);
+            poolSize[0] += 4 + s.getBytes(UTF_8).length;
+        }
+        return offset;
+    }
+
+    private static int severity(String severity) {
+        for (int i = 0; i < SEVERITIES.length; i++) {
+            if (SEVERITIES[i].equalsIgnoreCase(severity)) {
+                return i;
+            }
+        }
+        return 0; // Unknown, so assume the worst
+    }
+
+    @Value
+    public static class Advisory {
+        String groupId;
+        String artifactId;
+
+        /**
+         * The first affected version, or {@code null} when every version up to the fix is affected.
+         */
+        @Nullable
+        String introducedVersion;
+
+        @Nullable
+        String fixedVersion;
+
+        @Nullable
+        String lastAffectedVersion;
+
+        /**
+         * One of Critical, High, Moderate or Low.
+         */
+        String severity;
+
+        @Nullable
+        Double epss;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.internal;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Column;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Reads one column of a data table row. A row's column is the first declared field
+ * whose name or {@link Column#displayName()} matches the column name, ignoring case.
+ * <p>
+ * The field is looked up reflectively only once per (row class, column name) pair. After
+ * that, reading the column of a row is a single {@link MethodHandle} invocation.
+ */
+public final class ColumnAccessor {
+    private static final ColumnAccessor MISSING = new ColumnAccessor(null);
+
+    private static final ClassValue<Map<String, ColumnAccessor>> ACCESSORS = new ClassValue<Map<String, ColumnAccessor>>() {
+        @Override
+        protected Map<String, ColumnAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final @Nullable MethodHandle getter;
+
+    private ColumnAccessor(@Nullable MethodHandle getter) {
+        this.getter = getter;
+    }
+
+    public static ColumnAccessor of(Class<?> rowClass, String column) {
+        return ACCESSORS.get(rowClass).computeIfAbsent(column, c -> compile(rowClass, c));
+    }
+
+    /**
+     * @return The value of the column in this row, or {@code null} if the row has no such column.
+     */
+    public @Nullable Object get(Object row) {
+        if (getter == null) {
+            return null;
+        }
+        try {
+            return (Object) getter.invokeExact(row);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unable to read column of " + row.getClass().getName(), t);
+        }
+    }
+
+    private static ColumnAccessor compile(Class<?> rowClass, String column) {
+        for (Field field : rowClass.getDeclaredFields()) {
+            Column annotation = field.getAnnotation(Column.class);
+            String displayName = annotation == null ? null : annotation.displayName();
+            if (!column.equalsIgnoreCase(field.getName()) &&
+                (displayName == null || !column.equalsIgnoreCase(displayName))) {
+                continue;
+            }
+            try {
+                field.setAccessible(true);
+                MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                }
+                return new ColumnAccessor(getter.asType(methodType(Object.class, Object.class)));
+            } catch (IllegalAccessException ignored) {
+                return MISSING;
+            }
+        }
+        return MISSING;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.internal;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Reads the numeric value of a data table column, which may hold numbers or their
+ * string representation.
+ */
+public final class NumericValues {
+    private NumericValues() {
+    }
+
+    /**
+     * @param value The raw value of a column in a row.
+     * @return The value as a double, or {@link Double#NaN} when it is missing or not numeric,
+     * so that callers skip it without boxing.
+     */
+    public static double toDouble(@Nullable Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException ignored) {
+                // Not numeric
+            }
+        }
+        return Double.NaN;
+    }
+}
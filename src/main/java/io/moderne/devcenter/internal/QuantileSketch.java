@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.internal;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A quantile sketch with a fixed upper bound on its memory, regardless of how many
+ * values are added to it. Values are counted in logarithmically sized bins, so any
+ * quantile is estimated to within {@link #RELATIVE_ACCURACY} of the true value.
+ * <p>
+ * When a sign runs out of bins, its bins closest to zero are collapsed together,
+ * which only affects the accuracy of quantiles that fall into those smallest values.
+ * Non-finite values are ignored.
+ * <p>
+ * Sketches can be merged, so that the quantiles of a union of values can be estimated
+ * from the sketches of its parts.
+ */
+public final class QuantileSketch {
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final int MAX_BINS = 2048;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    /**
+     * Magnitudes below this are counted as zero.
+     */
+    private static final double MIN_MAGNITUDE = 1e-9;
+
+    private final Bins positive = new Bins();
+    private final Bins negative = new Bins();
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (value >= MIN_MAGNITUDE) {
+            positive.add(index(value), 1);
+        } else if (value <= -MIN_MAGNITUDE) {
+            negative.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(QuantileSketch other) {
+        positive.addAll(other.positive);
+        negative.addAll(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public @Nullable Double getMin() {
+        return count == 0 ? null : min;
+    }
+
+    public @Nullable Double getMax() {
+        return count == 0 ? null : max;
+    }
+
+    /**
+     * @param q A quantile between 0 and 1.
+     * @return The estimated value at that quantile, or {@code null} if no values were added.
+     */
+    public @Nullable Double quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        // The nearest-rank definition: the smallest value that at least q of all values are at or below.
+        long rank = Math.max(0, (long) Math.ceil(q * count) - 1);
+
+        long seen = 0;
+        // The most negative values are in the highest negative bins.
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return clamp(-value(negative.offset + i));
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return clamp(0);
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return clamp(value(positive.offset + i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return The state of this sketch as a compact string, which {@link #deserialize(String)}
+     * reads back into a sketch that can be merged with others.
+     */
+    public String serialize() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(count).append(';').append(zeroCount).append(';')
+                .append(count == 0 ? 0 : min).append(';')
+                .append(count == 0 ? 0 : max).append(';');
+        positive.serialize(sb);
+        sb.append(';');
+        negative.serialize(sb);
+        return sb.toString();
+    }
+
+    public static QuantileSketch deserialize(String serialized) {
+        String[] parts = serialized.split(";", -1);
+        if (parts.length != 6) {
+            throw new IllegalArgumentException("Not a serialized quantile sketch: " + serialized);
+        }
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.count = Long.parseLong(parts[0]);
+        sketch.zeroCount = Long.parseLong(parts[1]);
+        if (sketch.count > 0) {
+            sketch.min = Double.parseDouble(parts[2]);
+            sketch.max = Double.parseDouble(parts[3]);
+        }
+        sketch.positive.deserialize(parts[4]);
+        sketch.negative.deserialize(parts[5]);
+        return sketch;
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA);
+    }
+
+    /**
+     * @return The value that is within the relative accuracy of every value in the bin.
+     */
+    private static double value(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    /**
+     * Dense counts for a contiguous range of bin indexes, starting at {@link #offset}.
+     */
+    private static class Bins {
+        long[] counts = new long[0];
+        int offset;
+
+        void add(int index, long n) {
+            if (counts.length == 0) {
+                counts = new long[1];
+                offset = index;
+            } else if (index < offset) {
+                if (counts.length + offset - index > MAX_BINS) {
+                    // Already at capacity below this index, so count it in the lowest bin.
+                    index = Math.max(index, offset + counts.length - MAX_BINS);
+                }
+                if (index < offset) {
+                    long[] grown = new long[counts.length + offset - index];
+                    System.arraycopy(counts, 0, grown, offset - index, counts.length);
+                    counts = grown;
+                    offset = index;
+                }
+            } else if (index >= offset + counts.length) {
+                counts = Arrays.copyOf(counts, index - offset + 1);
+                collapse();
+            }
+            counts[Math.max(index, offset) - offset] += n;
+        }
+
+        void addAll(Bins other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        /**
+         * Collapses the lowest bins into one when there are more than {@link #MAX_BINS}.
+         */
+        private void collapse() {
+            int excess = counts.length - MAX_BINS;
+            if (excess <= 0) {
+                return;
+            }
+            long collapsed = 0;
+            for (int i = 0; i <= excess; i++) {
+                collapsed += counts[i];
+            }
+            counts = Arrays.copyOfRange(counts, excess, counts.length);
+            counts[0] = collapsed;
+            offset += excess;
+        }
+
+        /**
+         * Writes the offset followed by the counts, trimmed of the empty bins at either end.
+         */
+        void serialize(StringBuilder sb) {
+            int from = 0;
+            int to = counts.length;
+            while (from < to && counts[from] == 0) {
+                from++;
+            }
+            while (to > from && counts[to - 1] == 0) {
+                to--;
+            }
+            sb.append(offset + from);
+            for (int i = from; i < to; i++) {
+                sb.append(',').append(counts[i]);
+            }
+        }
+
+        void deserialize(String serialized) {
+            String[] parts = serialized.split(",");
+            offset = Integer.parseInt(parts[0]);
+            counts = new long[parts.length - 1];
+            for (int i = 1; i < parts.length; i++) {
+                counts[i - 1] = Long.parseLong(parts[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reads the major and minor numbers out of version strings and version constraints, and
+ * classifies them into tiers, without allocating. A major and minor pair is packed into a
+ * single {@code long} that orders the same way the pair does, so comparing versions and
+ * finding their tier are plain numeric comparisons.
+ */
+public final class VersionNumbers {
+    /**
+     * Returned when no version could be read.
+     */
+    public static final long NONE = -1;
+
+    private VersionNumbers() {
+    }
+
+    public static long of(int major, int minor) {
+        return (long) major << 32 | minor;
+    }
+
+    public static int major(long version) {
+        return (int) (version >>> 32);
+    }
+
+    public static int minor(long version) {
+        return (int) version;
+    }
+
+    /**
+     * @param version    The version, or anything containing one, like {@code 2.13.4} or {@code go1.22}.
+     * @param withMinor  Whether only a major and minor pair separated by a dot counts as a version.
+     * @return The first version found, with a minor of 0 when none follows the major, or {@link #NONE}.
+     */
+    public static long find(CharSequence version, boolean withMinor) {
+        for (int i = 0; i < version.length(); i++) {
+            if (isDigit(version, i)) {
+                long found = read(version, i, withMinor, false);
+                if (found != NONE) {
+                    return found;
+                }
+                while (isDigit(version, i + 1)) {
+                    i++;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * @param constraint A version constraint, like {@code >=3.8,<4} or {@code ^18.0.0}.
+     * @param operators  The operators to look for.
+     * @param withMinor  Whether only a major and minor pair separated by a dot counts as a version.
+     * @return The first version that directly follows one of the operators (ignoring whitespace and
+     * a leading {@code v}), with a minor of 0 when none follows the major, or {@link #NONE}.
+     */
+    public static long findAfterOperator(String constraint, String[] operators, boolean withMinor) {
+        for (int i = 0; i < constraint.length(); i++) {
+            for (String operator : operators) {
+                if (constraint.startsWith(operator, i)) {
+                    int j = i + operator.length();
+                    while (j < constraint.length() && Character.isWhitespace(constraint.charAt(j))) {
+                        j++;
+                    }
+                    if (j < constraint.length() && constraint.charAt(j) == 'v') {
+                        j++;
+                    }
+                    long found = read(constraint, j, withMinor, false);
+                    if (found != NONE) {
+                        return found;
+                    }
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * @return The major and minor pair that makes up all of the version from {@code from} on,
+     * like the {@code 8.0} of {@code net8.0}, or {@link #NONE}.
+     */
+    public static long parse(CharSequence version, int from) {
+        return read(version, from, true, true);
+    }
+
+    /**
+     * @param measures  The measures of a card, from the oldest tier up, along with the one
+     *                  measure that is not a tier.
+     * @param completed The measure that is not a tier.
+     * @param minimum   The smallest version of a tier.
+     */
+    public static <M> Tiers<M> tiers(M[] measures, M completed, ToLongFunction<M> minimum) {
+        List<M> tiers = new ArrayList<>(measures.length);
+        for (M measure : measures) {
+            if (measure != completed) {
+                tiers.add(measure);
+            }
+        }
+        long[] thresholds = new long[tiers.size()];
+        for (int i = 0; i < thresholds.length; i++) {
+            thresholds[i] = minimum.applyAsLong(tiers.get(i));
+        }
+        return new Tiers<>(thresholds, tiers.toArray(Arrays.copyOf(measures, 0)));
+    }
+
+    /**
+     * Splits both versions into parts at dots, dashes, underscores, plus signs, and wherever
+     * digits and letters meet, and compares them part by part up to the end of the shorter one.
+     * A part differs when the current version's part is not numeric but the other's is, or when
+     * the current version's part is numeric and the other's is not the same number.
+     *
+     * @return The first part that differs, or -1 if none do.
+     */
+    public static int firstDifferingPart(String current, String other) {
+        int i = 0;
+        int j = 0;
+        for (int part = 0; ; part++) {
+            i = skipSeparators(current, i);
+            j = skipSeparators(other, j);
+            if (i >= current.length() || j >= other.length()) {
+                return -1;
+            }
+            int currentEnd = partEnd(current, i);
+            int otherEnd = partEnd(other, j);
+            if (isDigit(current, i) ?
+                    !isDigit(other, j) || !sameNumber(current, i, currentEnd, other, j, otherEnd) :
+                    isDigit(other, j)) {
+                return part;
+            }
+            i = currentEnd;
+            j = otherEnd;
+        }
+    }
+
+    /**
+     * Reads {@code major[.minor]} starting exactly at {@code from}. Numbers too large for an
+     * {@code int} are clamped.
+     */
+    private static long read(CharSequence s, int from, boolean withMinor, boolean toEnd) {
+        if (!isDigit(s, from)) {
+            return NONE;
+        }
+        int i = from;
+        long major = 0;
+        for (; isDigit(s, i); i++) {
+            major = Math.min(major * 10 + (s.charAt(i) - '0'), Integer.MAX_VALUE);
+        }
+        long minor = 0;
+        if (i < s.length() && s.charAt(i) == '.' && isDigit(s, i + 1)) {
+            for (i++; isDigit(s, i); i++) {
+                minor = Math.min(minor * 10 + (s.charAt(i) - '0'), Integer.MAX_VALUE);
+            }
+        } else if (withMinor) {
+            return NONE;
+        }
+        if (toEnd && i != s.length()) {
+            return NONE;
+        }
+        return of((int) major, (int) minor);
+    }
+
+    private static boolean isDigit(CharSequence s, int i) {
+        if (i >= s.length()) {
+            return false;
+        }
+        char c = s.charAt(i);
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipSeparators(String s, int i) {
+        while (i < s.length() && isSeparator(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '.' || c == '-' || c == '_' || c == '+';
+    }
+
+    private static int partEnd(String s, int i) {
+        boolean digits = isDigit(s, i);
+        for (i++; i < s.length() && !isSeparator(s.charAt(i)) && isDigit(s, i) == digits; i++) {
+        }
+        return i;
+    }
+
+    private static boolean sameNumber(String a, int aStart, int aEnd, String b, int bStart, int bEnd) {
+        while (aStart < aEnd - 1 && a.charAt(aStart) == '0') {
+            aStart++;
+        }
+        while (bStart < bEnd - 1 && b.charAt(bStart) == '0') {
+            bStart++;
+        }
+        return aEnd - aStart == bEnd - bStart && a.regionMatches(aStart, b, bStart, aEnd - aStart);
+    }
+
+    /**
+     * A card's measures by the smallest version that falls in each of them.
+     */
+    public static final class Tiers<M> {
+        private final long[] thresholds;
+        private final M[] measures;
+
+        /**
+         * @param thresholds The smallest version of each tier, ascending.
+         * @param measures   The measure of each tier.
+         */
+        public Tiers(long[] thresholds, M[] measures) {
+            if (thresholds.length != measures.length || thresholds.length == 0) {
+                throw new IllegalArgumentException("Every tier needs a threshold and a measure");
+            }
+            this.thresholds = thresholds;
+            this.measures = measures;
+        }
+
+        /**
+         * @return The measure of the highest tier the version reaches. Versions below the first
+         * threshold fall in the first tier.
+         */
+        public M classify(long version) {
+            int low = 0;
+            int high = thresholds.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] <= version) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return measures[Math.max(0, low - 1)];
+        }
+    }
+}
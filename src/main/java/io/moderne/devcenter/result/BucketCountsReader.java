@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.result;
+
+import io.moderne.devcenter.DevCenter;
+import io.moderne.organizations.RepositoryId;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.internal.StringUtils;
+
+import java.io.Reader;
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
+
+class BucketCountsReader {
+    private final Map<String, DevCenter.Card> cardsByName = new HashMap<>();
+    private final Map<RepositoryId, List<RepositoryResult>> repositoryResults;
+
+    public BucketCountsReader(DevCenter devCenter, Map<RepositoryId, List<RepositoryResult>> repositoryResults) {
+        for (DevCenter.Card card : devCenter.getUpgradesAndMigrations()) {
+            if (card.getAggregation() == DevCenter.Aggregation.PER_OCCURRENCE) {
+                cardsByName.putIfAbsent(card.getName(), card);
+            }
+        }
+        this.repositoryResults = repositoryResults;
+    }
+
+    public void read(Reader bucketCounts) {
+        new ChunkedCsvReader<>(BucketCountsColumn::fromString, this::parseRow, this::apply)
+                .read(bucketCounts);
+    }
+
+    private @Nullable ResolvedRow parseRow(List<BucketCountsColumn> headers, @Nullable String[] row) {
+        String origin = null;
+        String path = null;
+        String branch = null;
+        String cardName = null;
+        Integer ordinal = null;
+        Integer count = null;
+
+        for (int i = 0; i < row.length && i < headers.size(); i++) {
+            String value = row[i];
+            if (StringUtils.isBlank(value)) {
+                value = null;
+            }
+            switch (headers.get(i)) {
+                case REPOSITORY_ORIGIN:
+                    origin = value;
+                    break;
+                case REPOSITORY_PATH:
+                    path = value;
+                    break;
+                case REPOSITORY_BRANCH:
+                    branch = value;
+                    break;
+                case CARD:
+                    cardName = value;
+                    break;
+                case ORDINAL:
+                    ordinal = Integer.parseInt(requireNonNull(value));
+                    break;
+                case COUNT:
+                    count = Integer.parseInt(requireNonNull(value));
+                    break;
+            }
+        }
+
+        assert origin != null && path != null && ordinal != null && count != null;
+
+        List<RepositoryResult> results = repositoryResults.getOrDefault(new RepositoryId(origin, path, branch), emptyList());
+        DevCenter.Card card = cardName == null ? null : cardsByName.get(cardName);
+        if (results.isEmpty() || card == null) {
+            return null;
+        }
+        if (ordinal < 0 || ordinal >= card.getMeasures().size()) {
+            throw new IndexOutOfBoundsException("No measure with ordinal " + ordinal + " on card " + card.getName());
+        }
+        return new ResolvedRow(results, card, ordinal, count);
+    }
+
+    private void apply(ResolvedRow row) {
+        for (RepositoryResult result : row.getResults()) {
+            result.addOccurrences(row.getCard(), row.getMeasureIndex(), row.getCount());
+        }
+    }
+
+    @Value
+    private static class ResolvedRow {
+        List<RepositoryResult> results;
+        DevCenter.Card card;
+        int measureIndex;
+        int count;
+    }
+
+    @RequiredArgsConstructor
+    private enum BucketCountsColumn {
+        REPOSITORY_ORIGIN("repositoryOrigin"),
+        REPOSITORY_PATH("repositoryPath"),
+        REPOSITORY_BRANCH("repositoryBranch"),
+        CARD("card"),
+        ORDINAL("ordinal"),
+        COUNT("count"),
+        UNKNOWN("unknown");
+
+        private final String key;
+
+        public static BucketCountsColumn fromString(String key) {
+            for (BucketCountsColumn column : values()) {
+                if (column.key.equalsIgnoreCase(key)) {
+                    return column;
+                }
+            }
+            return UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.result;
+
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+import com.univocity.parsers.csv.UnescapedQuoteHandling;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.internal.StringUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Reads a DevCenter data table CSV by splitting it on record boundaries into chunks
+ * that are parsed on a worker pool. Only a bounded number of chunks are in flight at
+ * a time, so the whole file is never held in memory.
+ * <p>
+ * Parsed rows are handed to the row consumer on the calling thread in the same order
+ * they appear in the file, so the outcome is identical to reading it sequentially.
+ *
+ * @param <H> The type of a column header.
+ * @param <R> The type of a parsed row.
+ */
+class ChunkedCsvReader<H, R> {
+    static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final Function<String, H> columnParser;
+
+    /**
+     * Runs on worker threads, so it must only read shared state.
+     * Returns {@code null} for rows that should be skipped.
+     */
+    private final BiFunction<List<H>, @Nullable String[], @Nullable R> rowParser;
+
+    private final Consumer<R> rowConsumer;
+    private final Executor executor;
+    private final int parallelism;
+    private final int chunkSize;
+
+    ChunkedCsvReader(Function<String, H> columnParser,
+                     BiFunction<List<H>, @Nullable String[], @Nullable R> rowParser,
+                     Consumer<R> rowConsumer) {
+        this(columnParser, rowParser, rowConsumer, ForkJoinPool.commonPool(),
+                ForkJoinPool.getCommonPoolParallelism(), DEFAULT_CHUNK_SIZE);
+    }
+
+    ChunkedCsvReader(Function<String, H> columnParser,
+                     BiFunction<List<H>, @Nullable String[], @Nullable R> rowParser,
+                     Consumer<R> rowConsumer,
+                     Executor executor,
+                     int parallelism,
+                     int chunkSize) {
+        this.columnParser = columnParser;
+        this.rowParser = rowParser;
+        this.rowConsumer = rowConsumer;
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    public void read(Reader csv) {
+        try {
+            RecordChunker chunker = new RecordChunker(csv, chunkSize);
+            List<H> headers = new ArrayList<>();
+            Deque<CompletableFuture<List<R>>> inFlight = new ArrayDeque<>();
+
+            String chunk;
+            while ((chunk = chunker.next()) != null) {
+                if (headers.isEmpty()) {
+                    // Parse on this thread until the header row has been found.
+                    parseChunk(chunk, headers).forEach(rowConsumer);
+                    continue;
+                }
+
+                String c = chunk;
+                List<H> h = unmodifiableList(headers);
+                inFlight.add(CompletableFuture.supplyAsync(() -> parseChunk(c, h), executor));
+                if (inFlight.size() >= parallelism * 2) {
+                    inFlight.remove().join().forEach(rowConsumer);
+                }
+            }
+
+            while (!inFlight.isEmpty()) {
+                inFlight.remove().join().forEach(rowConsumer);
+            }
+        } catch (Exception e) {
+            throw new UncheckedIOException("Unable to read from CSV", new IOException(e));
+        }
+    }
+
+    /**
+     * @param chunk   A run of complete CSV records.
+     * @param headers The column headers, which are populated from the first non-empty
+     *                row of the chunk if they are still empty.
+     * @return The parsed rows of the chunk, in order.
+     */
+    private List<R> parseChunk(String chunk, List<H> headers) {
+        CsvParserSettings settings = new CsvParserSettings();
+        settings.setLineSeparatorDetectionEnabled(true);
+        // RecordChunker relies on this to find the same record boundaries as the parser.
+        settings.setUnescapedQuoteHandling(UnescapedQuoteHandling.STOP_AT_CLOSING_QUOTE);
+
+        CsvParser parser = new CsvParser(settings);
+        parser.beginParsing(new StringReader(chunk));
+
+        try {
+            List<R> rows = new ArrayList<>();
+            @Nullable String[] row;
+            while ((row = parser.parseNext()) != null) {
+                if (row.length == 0 || (row.length == 1 && StringUtils.isBlank(row[0]))) {
+                    continue; // Skip empty lines
+                }
+
+                if (headers.isEmpty()) {
+                    for (String header : row) {
+                        if (header != null) {
+                            headers.add(columnParser.apply(header.trim()));
+                        }
+                    }
+                } else {
+                    R parsed = rowParser.apply(headers, row);
+                    if (parsed != null) {
+                        rows.add(parsed);
+                    }
+                }
+            }
+            return rows;
+        } finally {
+            parser.stopParsing();
+        }
+    }
+
+    /**
+     * Splits a CSV stream into chunks of roughly the requested size that always end
+     * on a record boundary, i.e. a line break that is not inside a quoted value.
+     * <p>
+     * Quotes are tracked the way univocity parses them with
+     * {@link UnescapedQuoteHandling#STOP_AT_CLOSING_QUOTE}: a quote only opens a quoted
+     * value at the start of a field (after any leading whitespace), a doubled quote inside
+     * a quoted value is an escaped quote, and a quote followed by anything other than a
+     * delimiter, line break or whitespace is kept as part of the still quoted value.
+     * {@code \n}, {@code \r\n} and lone {@code \r} line endings all end a record.
+     */
+    static class RecordChunker {
+        private static final int FIELD_START = 0;
+        private static final int UNQUOTED = 1;
+        private static final int QUOTED = 2;
+        private static final int AFTER_QUOTE = 3;
+
+        private final Reader reader;
+        private final int chunkSize;
+        private final char[] buffer = new char[8192];
+        private int pos;
+        private int limit;
+        private int state = FIELD_START;
+
+        /**
+         * Set when the chunk is full and ends in a {@code \r}, so that a {@code \n} that
+         * follows is kept with it rather than starting the next chunk.
+         */
+        private boolean endAfterCarriageReturn;
+
+        RecordChunker(Reader reader, int chunkSize) {
+            this.reader = reader;
+            this.chunkSize = chunkSize;
+        }
+
+        @Nullable
+        String next() throws IOException {
+            StringBuilder chunk = new StringBuilder();
+            while (true) {
+                if (pos == limit) {
+                    limit = reader.read(buffer, 0, buffer.length);
+                    pos = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        endAfterCarriageReturn = false;
+                        return chunk.length() == 0 ? null : chunk.toString();
+                    }
+                }
+
+                if (endAfterCarriageReturn) {
+                    endAfterCarriageReturn = false;
+                    if (buffer[pos] == '\n') {
+                        chunk.append('\n');
+                        pos++;
+                    }
+                    return chunk.toString();
+                }
+                int start = pos;
+                while (pos < limit) {
+                    char c = buffer[pos++];
+                    if (accept(c) && chunk.length() + (pos - start) >= chunkSize) {
+                        chunk.append(buffer, start, pos - start);
+                        if (c == '\r') {
+                            if (pos == limit) {
+                                // Whether a \n follows is only known after the next read.
+                                endAfterCarriageReturn = true;
+                                break;
+                            }
+                            if (buffer[pos] == '\n') {
+                                chunk.append('\n');
+                                pos++;
+                            }
+                        }
+                        return chunk.toString();
+                    }
+                }
+                if (!endAfterCarriageReturn) {
+                    chunk.append(buffer, start, pos - start);
+                }
+            }
+        }
+
+        /**
+         * @return Whether the character ends a record.
+         */
+        private boolean accept(char c) {
+            boolean lineBreak = c == '\n' || c == '\r';
+            switch (state) {
+                case FIELD_START:
+                    if (c == '"') {
+                        state = QUOTED;
+                    } else if (c != ',' && !lineBreak && c != ' ' && c != '\t') {
+                        state = UNQUOTED;
+                    }
+                    return lineBreak;
+                case UNQUOTED:
+                    if (c == ',' || lineBreak) {
+                        state = FIELD_START;
+                    }
+                    return lineBreak;
+                case QUOTED:
+                    if (c == '"') {
+                        state = AFTER_QUOTE;
+                    }
+                    return false;
+                default: // AFTER_QUOTE
+                    if (c == ',' || lineBreak) {
+                        state = FIELD_START;
+                        return lineBreak;
+                    }
+                    if (c != ' ' && c != '\t') {
+                        // An escaped quote, or an unescaped one that stays part of the value.
+                        state = QUOTED;
+                    }
+                    return false;
+            }
+        }
+    }
+}
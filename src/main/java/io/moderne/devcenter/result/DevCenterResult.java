@@ -17,23 +17,40 @@ package io.moderne.devcenter.result;
 
 import io.moderne.devcenter.DevCenter;
 import io.moderne.devcenter.DevCenterMeasure;
+import io.moderne.devcenter.MetricAggregate;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import lombok.AllArgsConstructor;
 import org.jspecify.annotations.Nullable;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.function.BiConsumer;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+
 /**
  * A result at a particular point in time for a DevCenter.
  */
-@RequiredArgsConstructor
+@AllArgsConstructor
 @Getter
 public class DevCenterResult {
     private final Map<DevCenter.Card, ByMeasure> resultsByCard;
 
+    /**
+     * The metric of each card that emits metric aggregates, merged across the repositories
+     * of the organization, from which the organization's average and percentiles of the metric
+     * can be read.
+     */
+    private final Map<DevCenter.Card, MetricAggregate> metricAggregatesByCard;
+
+    public DevCenterResult(Map<DevCenter.Card, ByMeasure> resultsByCard) {
+        this(resultsByCard, emptyMap());
+    }
+
     public void forEach(DevCenter.@Nullable Card card, BiConsumer<? super DevCenterMeasure, Integer> measure) {
         ByMeasure byMeasure = resultsByCard.get(card);
         if (byMeasure != null) {
@@ -41,12 +58,78 @@ public class DevCenterResult {
         }
     }
 
-    @Getter
+    /**
+     * The count of each measure of a card, held densely by the position of the measure in
+     * {@link DevCenter.Card#getMeasures()} so that reduction doesn't box or allocate per count.
+     * <p>
+     * Unlike earlier versions, {@link #getMeasures()} of a {@code ByMeasure} created for a card is
+     * a read-only view of the counts. Only one created with the deprecated no-argument constructor
+     * still hands out a map that can be filled in directly.
+     */
     public static class ByMeasure {
-        Map<DevCenterMeasure, Integer> measures;
+        private final List<DevCenterMeasure> measureList;
+        private final int[] counts;
 
+        /**
+         * Built on first use, and volatile so that results shared between threads, such as
+         * those cached by the reducer, only ever see a fully built view.
+         */
+        private transient volatile @Nullable Map<DevCenterMeasure, Integer> measures;
+
+        /**
+         * @deprecated Counts are kept by the position of the measure in its card, so use
+         * {@link #ByMeasure(DevCenter.Card)}. A {@code ByMeasure} created this way has no card, and
+         * its {@link #getMeasures()} is a mutable map that the caller fills in.
+         */
+        @Deprecated
         public ByMeasure() {
+            this.measureList = emptyList();
+            this.counts = new int[0];
             this.measures = new TreeMap<>(Comparator.comparing(DevCenterMeasure::ordinal));
         }
+
+        public ByMeasure(DevCenter.Card card) {
+            this.measureList = card.getMeasures();
+            this.counts = new int[measureList.size()];
+        }
+
+        /**
+         * @param measureIndex The position of the measure in {@link DevCenter.Card#getMeasures()}.
+         * @return The count for the measure.
+         */
+        public int getCount(int measureIndex) {
+            return counts[measureIndex];
+        }
+
+        void add(int measureIndex, int count) {
+            counts[measureIndex] += count;
+            measures = null;
+        }
+
+        void addAll(ByMeasure other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            measures = null;
+        }
+
+        /**
+         * @return An unmodifiable view of the measures that have a count, ordered by
+         * {@link DevCenterMeasure#ordinal()}, or the mutable map of a {@code ByMeasure} created
+         * with {@link #ByMeasure()}.
+         */
+        public Map<DevCenterMeasure, Integer> getMeasures() {
+            Map<DevCenterMeasure, Integer> m = measures;
+            if (m == null) {
+                m = new TreeMap<>(Comparator.comparing(DevCenterMeasure::ordinal));
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] != 0) {
+                        m.put(measureList.get(i), counts[i]);
+                    }
+                }
+                measures = m = unmodifiableMap(m);
+            }
+            return m;
+        }
     }
 }
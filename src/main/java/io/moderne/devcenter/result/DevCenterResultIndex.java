@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.result;
+
+import io.moderne.organizations.Organization;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The precomputed {@link DevCenterResult} of every organization in a results
+ * materialization, as produced by {@link DevCenterResultReducer#reduceAll()}.
+ */
+public class DevCenterResultIndex {
+    private final boolean resultsIsRoot;
+    private final Map<List<String>, DevCenterResult> resultsByPath;
+
+    DevCenterResultIndex(boolean resultsIsRoot, Map<List<String>, DevCenterResult> resultsByPath) {
+        this.resultsIsRoot = resultsIsRoot;
+        this.resultsByPath = resultsByPath;
+    }
+
+    /**
+     * @param organization The organization to get the result for.
+     * @return The summarized results for the organization.
+     * @throws IllegalArgumentException if the organization is not part of the reduced tree.
+     */
+    public DevCenterResult get(Organization<?> organization) {
+        DevCenterResult result = resultsByPath.get(DevCenterResultReducer.pathFromResults(organization, resultsIsRoot));
+        if (result == null) {
+            throw new IllegalArgumentException("No result found for organization: " + organization.getName());
+        }
+        return result;
+    }
+
+    public int size() {
+        return resultsByPath.size();
+    }
+}
@@ -17,16 +17,22 @@ package io.moderne.devcenter.result;
 
 import io.moderne.devcenter.DevCenter;
 import io.moderne.devcenter.DevCenterMeasure;
+import io.moderne.devcenter.MetricAggregate;
 import io.moderne.organizations.Organization;
 import io.moderne.organizations.RepositoryId;
 import io.moderne.organizations.RepositorySpec;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Collections.reverse;
+import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
 
 @RequiredArgsConstructor
@@ -39,22 +45,328 @@ public class DevCenterResultReducer {
      */
     private final Organization<RepositoryResult> results;
 
+    /**
+     * Reduced results by the path of the organization from the top of {@link #results}.
+     */
+    private final Map<List<String>, DevCenterResult> cache = new ConcurrentHashMap<>();
+
+    /**
+     * The ordinal of each measure of a card, built the first time a card is accumulated.
+     */
+    private final Map<DevCenter.Card, Map<DevCenterMeasure, Integer>> measureOrdinals = new ConcurrentHashMap<>();
+
+    /**
+     * Built on the first {@link #applyDelta(Collection, Reader, Reader, Reader, Reader)}.
+     */
+    private transient @Nullable Map<RepositoryId, List<RepositoryResult>> repositoryResults;
+    private transient @Nullable Map<RepositoryId, List<List<String>>> repositoryOrganizationPaths;
+
     /**
      * Reduces the individual repository results for a given organization to a DevCenterResult.
+     * The result is cached until a delta is applied to a repository of the organization.
      *
      * @param organization The organization to calculate the result for.
      * @return A DevCenterResult containing the summarized results for the organization.
      */
     public DevCenterResult reduce(Organization<?> organization) {
+        List<String> path = pathFromResults(organization);
+        DevCenterResult cached = cache.get(path);
+        if (cached != null) {
+            return cached;
+        }
+
+        Map<DevCenter.Card, DevCenterResult.ByMeasure> resultsByCard = new LinkedHashMap<>();
+        Map<DevCenter.Card, MetricAggregate> metricAggregatesByCard = new LinkedHashMap<>();
+
+        // Find the organization in the repository results materialization.
+        Organization<RepositoryResult> result = results.getChild(path.toArray(new String[0]));
+
+        Set<RepositoryId> seen = new HashSet<>();
+        result.forEachOrganization(org -> {
+            for (RepositorySpec<RepositoryResult> repository : org.getRepositories()) {
+                if (!seen.add(repository.getId())) {
+                    continue; // Skip if we've already processed this repository
+                }
+                accumulate(requireNonNull(repository.getMaterialized()), resultsByCard, metricAggregatesByCard);
+            }
+        });
+
+        DevCenterResult reduced = new DevCenterResult(unmodifiableMap(resultsByCard), unmodifiableMap(metricAggregatesByCard));
+        cache.put(path, reduced);
+        return reduced;
+    }
+
+    /**
+     * Reduces the results for every organization in one post-order traversal of the
+     * materialized organization tree. Each organization's histograms are merged from
+     * those of its children rather than recomputed from its repositories, so every
+     * repository is visited once no matter how deeply nested the organizations are.
+     * <p>
+     * A repository that belongs to more than one child organization is still only
+     * counted once in the parent.
+     *
+     * @return An immutable index of the result for every organization.
+     */
+    public DevCenterResultIndex reduceAll() {
+        Map<List<String>, DevCenterResult> resultsByPath = new HashMap<>();
+        reduceAll(results, new ArrayList<>(), new HashMap<>(), new ArrayList<>(), resultsByPath);
+        cache.putAll(resultsByPath);
+        return new DevCenterResultIndex(results.isRoot(), resultsByPath);
+    }
+
+    /**
+     * @param org               The organization to reduce.
+     * @param path              The path of organization names from {@link #results} down to {@code org}.
+     * @param repositoryIndex   Assigns every distinct repository a bit position in the returned {@link BitSet}.
+     * @param repositoryResults The first materialized result seen for each indexed repository.
+     * @param resultsByPath     The cache being populated.
+     * @return The set of repositories (by index) in this organization's subtree.
+     */
+    private BitSet reduceAll(Organization<RepositoryResult> org,
+                             List<String> path,
+                             Map<RepositoryId, Integer> repositoryIndex,
+                             List<RepositoryResult> repositoryResults,
+                             Map<List<String>, DevCenterResult> resultsByPath) {
+        BitSet repositories = new BitSet();
+        List<DevCenterResult> childResults = new ArrayList<>();
+        int childRepositoryCount = 0;
+        for (Organization<RepositoryResult> child : org.getChildren()) {
+            path.add(child.getName());
+            BitSet childRepositories = reduceAll(child, path, repositoryIndex, repositoryResults, resultsByPath);
+            childResults.add(resultsByPath.get(path));
+            path.remove(path.size() - 1);
+
+            repositories.or(childRepositories);
+            childRepositoryCount += childRepositories.cardinality();
+        }
+
         Map<DevCenter.Card, DevCenterResult.ByMeasure> resultsByCard = new LinkedHashMap<>();
+        Map<DevCenter.Card, MetricAggregate> metricAggregatesByCard = new LinkedHashMap<>();
+        if (repositories.cardinality() == childRepositoryCount) {
+            // The common case: no repository is shared between children, so their
+            // histograms and metric aggregates can simply be merged together.
+            for (DevCenterResult childResult : childResults) {
+                merge(childResult, resultsByCard, metricAggregatesByCard);
+            }
+        } else {
+            for (int i = repositories.nextSetBit(0); i >= 0; i = repositories.nextSetBit(i + 1)) {
+                accumulate(repositoryResults.get(i), resultsByCard, metricAggregatesByCard);
+            }
+        }
+
+        for (RepositorySpec<RepositoryResult> repository : org.getRepositories()) {
+            Integer index = repositoryIndex.get(repository.getId());
+            if (index == null) {
+                index = repositoryResults.size();
+                repositoryIndex.put(repository.getId(), index);
+                repositoryResults.add(requireNonNull(repository.getMaterialized()));
+            }
+            if (!repositories.get(index)) {
+                repositories.set(index);
+                accumulate(repositoryResults.get(index), resultsByCard, metricAggregatesByCard);
+            }
+        }
+
+        resultsByPath.put(new ArrayList<>(path), new DevCenterResult(unmodifiableMap(resultsByCard),
+                unmodifiableMap(metricAggregatesByCard)));
+        return repositories;
+    }
+
+    /**
+     * Replaces the results of a set of repositories with the rows of a delta, such as the data
+     * tables of a run over only the repositories that changed since the last one. Cached
+     * organization results are invalidated only for the organizations that contain one of
+     * these repositories and their ancestors.
+     * <p>
+     * This must not be called concurrently with {@link #reduce(Organization)}.
+     *
+     * @param repositories             The repositories whose results are replaced. Rows in the
+     *                                 delta for any other repository are ignored.
+     * @param upgradesAndMigrationsCsv The new upgrades and migrations rows for the repositories, or
+     *                                 {@code null} to keep their existing upgrades and migrations.
+     * @param securityIssuesCsv        The new security issues rows for the repositories, or
+     *                                 {@code null} to keep their existing security issues.
+     */
+    public void applyDelta(Collection<RepositoryId> repositories,
+                           @Nullable Reader upgradesAndMigrationsCsv,
+                           @Nullable Reader securityIssuesCsv) {
+        applyDelta(repositories, upgradesAndMigrationsCsv, securityIssuesCsv, null);
+    }
+
+    /**
+     * Like {@link #applyDelta(Collection, Reader, Reader)}, also replacing the metric aggregates.
+     *
+     * @param metricAggregatesCsv The new metric aggregates rows for the repositories, or
+     *                            {@code null} to keep their existing metric aggregates.
+     */
+    public void applyDelta(Collection<RepositoryId> repositories,
+                           @Nullable Reader upgradesAndMigrationsCsv,
+                           @Nullable Reader securityIssuesCsv,
+                           @Nullable Reader metricAggregatesCsv) {
+        applyDelta(repositories, upgradesAndMigrationsCsv, securityIssuesCsv, metricAggregatesCsv, null);
+    }
+
+    /**
+     * Like {@link #applyDelta(Collection, Reader, Reader, Reader)}, also replacing the bucket counts.
+     *
+     * @param bucketCountsCsv The new bucket counts rows for the repositories, or
+     *                        {@code null} to keep their existing bucket counts.
+     */
+    public void applyDelta(Collection<RepositoryId> repositories,
+                           @Nullable Reader upgradesAndMigrationsCsv,
+                           @Nullable Reader securityIssuesCsv,
+                           @Nullable Reader metricAggregatesCsv,
+                           @Nullable Reader bucketCountsCsv) {
+        if (repositoryResults == null || repositoryOrganizationPaths == null) {
+            repositoryResults = new HashMap<>();
+            repositoryOrganizationPaths = new HashMap<>();
+            indexRepositories(results, new ArrayList<>(), repositoryResults, repositoryOrganizationPaths);
+        }
 
+        Map<RepositoryId, List<RepositoryResult>> changed = new HashMap<>();
+        Set<List<String>> invalidated = new HashSet<>();
+        for (RepositoryId id : repositories) {
+            List<RepositoryResult> repositoryResult = repositoryResults.get(id);
+            if (repositoryResult == null) {
+                continue; // Not part of this organization tree
+            }
+            changed.put(id, repositoryResult);
+            for (RepositoryResult result : repositoryResult) {
+                if (upgradesAndMigrationsCsv != null) {
+                    result.getUpgradesAndMigrations().clear();
+                }
+                if (securityIssuesCsv != null) {
+                    result.clearSecurityIssues();
+                }
+                if (metricAggregatesCsv != null) {
+                    result.getMetricAggregates().clear();
+                }
+                if (bucketCountsCsv != null) {
+                    result.getOccurrences().clear();
+                }
+            }
+            for (List<String> path : repositoryOrganizationPaths.get(id)) {
+                for (int i = path.size(); i >= 0; i--) {
+                    if (!invalidated.add(path.subList(0, i))) {
+                        break; // This ancestor, and so all of its ancestors, are already invalidated
+                    }
+                }
+            }
+        }
+
+        if (upgradesAndMigrationsCsv != null) {
+            new UpgradesAndMigrationsReader(devCenter, changed).read(upgradesAndMigrationsCsv);
+        }
+        if (securityIssuesCsv != null) {
+            new SecurityIssuesReader(devCenter, changed).read(securityIssuesCsv);
+        }
+        if (metricAggregatesCsv != null) {
+            new MetricAggregatesReader(devCenter, changed).read(metricAggregatesCsv);
+        }
+        if (bucketCountsCsv != null) {
+            new BucketCountsReader(devCenter, changed).read(bucketCountsCsv);
+        }
+
+        for (List<String> path : invalidated) {
+            cache.remove(path);
+        }
+    }
+
+    private static void indexRepositories(Organization<RepositoryResult> org,
+                                          List<String> path,
+                                          Map<RepositoryId, List<RepositoryResult>> repositoryResults,
+                                          Map<RepositoryId, List<List<String>>> repositoryOrganizationPaths) {
+        List<String> orgPath = new ArrayList<>(path);
+        for (RepositorySpec<RepositoryResult> r : org.getRepositories()) {
+            repositoryResults.computeIfAbsent(r.getId(), k -> new ArrayList<>(1)).add(requireNonNull(r.getMaterialized()));
+            repositoryOrganizationPaths.computeIfAbsent(r.getId(), k -> new ArrayList<>(1)).add(orgPath);
+        }
+        for (Organization<RepositoryResult> child : org.getChildren()) {
+            path.add(child.getName());
+            indexRepositories(child, path, repositoryResults, repositoryOrganizationPaths);
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private void accumulate(RepositoryResult repositoryResult,
+                            Map<DevCenter.Card, DevCenterResult.ByMeasure> resultsByCard,
+                            Map<DevCenter.Card, MetricAggregate> metricAggregatesByCard) {
+        for (Map.Entry<DevCenter.Card, DevCenterMeasure> um : repositoryResult.getUpgradesAndMigrations().entrySet()) {
+            DevCenter.Card card = um.getKey();
+            resultsByCard.computeIfAbsent(card, DevCenterResult.ByMeasure::new)
+                    .add(requireNonNull(measureOrdinals(card).get(um.getValue())), 1);
+        }
+
+        DevCenter.Card security = devCenter.getSecurity();
+        int[] securityIssues = repositoryResult.getSecurityIssues();
+        if (security != null && securityIssues != null) {
+            DevCenterResult.ByMeasure byMeasure = resultsByCard.computeIfAbsent(security, DevCenterResult.ByMeasure::new);
+            for (int i = 0; i < securityIssues.length; i++) {
+                if (securityIssues[i] != 0) {
+                    byMeasure.add(i, securityIssues[i]);
+                }
+            }
+        }
+
+        for (Map.Entry<DevCenter.Card, int[]> occurrences : repositoryResult.getOccurrences().entrySet()) {
+            DevCenterResult.ByMeasure byMeasure = resultsByCard.computeIfAbsent(occurrences.getKey(), DevCenterResult.ByMeasure::new);
+            int[] counts = occurrences.getValue();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    byMeasure.add(i, counts[i]);
+                }
+            }
+        }
+
+        mergeMetricAggregates(repositoryResult.getMetricAggregates(), metricAggregatesByCard);
+    }
+
+    private Map<DevCenterMeasure, Integer> measureOrdinals(DevCenter.Card card) {
+        return measureOrdinals.computeIfAbsent(card, c -> {
+            List<DevCenterMeasure> measures = c.getMeasures();
+            Map<DevCenterMeasure, Integer> ordinals = new HashMap<>(measures.size() * 2);
+            for (int m = 0; m < measures.size(); m++) {
+                ordinals.putIfAbsent(measures.get(m), m);
+            }
+            return ordinals;
+        });
+    }
+
+    private static void merge(DevCenterResult from,
+                              Map<DevCenter.Card, DevCenterResult.ByMeasure> resultsByCard,
+                              Map<DevCenter.Card, MetricAggregate> metricAggregatesByCard) {
+        for (Map.Entry<DevCenter.Card, DevCenterResult.ByMeasure> byCard : from.getResultsByCard().entrySet()) {
+            resultsByCard.computeIfAbsent(byCard.getKey(), DevCenterResult.ByMeasure::new).addAll(byCard.getValue());
+        }
+        mergeMetricAggregates(from.getMetricAggregatesByCard(), metricAggregatesByCard);
+    }
+
+    /**
+     * Always merges into a new aggregate, since the aggregates being merged from are shared.
+     */
+    private static void mergeMetricAggregates(Map<DevCenter.Card, MetricAggregate> from,
+                                              Map<DevCenter.Card, MetricAggregate> metricAggregatesByCard) {
+        for (Map.Entry<DevCenter.Card, MetricAggregate> metric : from.entrySet()) {
+            metricAggregatesByCard.computeIfAbsent(metric.getKey(), k -> new MetricAggregate()).merge(metric.getValue());
+        }
+    }
+
+    /**
+     * Computes the path of organization names that leads from the top of the results
+     * materialization to the given organization.
+     *
+     * @param organization The organization to find the path to.
+     * @param resultsIsRoot Whether the top of the results materialization is the ε root.
+     * @return The path of organization names, from top to bottom.
+     */
+    static List<String> pathFromResults(Organization<?> organization, boolean resultsIsRoot) {
         List<String> pathToRoot = new ArrayList<>();
         Organization<?> o = organization;
         do {
             if (o.isRoot()) {
                 break;
             }
-            if (!results.isRoot() && o.getParent() != null && o.getParent().isRoot()) {
+            if (!resultsIsRoot && o.getParent() != null && o.getParent().isRoot()) {
                 // if the top of the tree is not the ε root, we need to
                 // ignore the last (top) parent organization, because this is the org we `getChild()` on
                 break;
@@ -63,74 +375,117 @@ public class DevCenterResultReducer {
             o = o.getParent();
         } while (o != null);
         reverse(pathToRoot);
+        return pathToRoot;
+    }
 
-        // Find the organization in the repository results materialization.
-        Organization<RepositoryResult> result = results.getChild(pathToRoot.toArray(new String[0]));
-
-        Set<RepositoryId> seen = new HashSet<>();
-        result.forEachOrganization(org -> {
-            for (RepositorySpec<RepositoryResult> repository : org.getRepositories()) {
-                if (!seen.add(repository.getId())) {
-                    continue; // Skip if we've already processed this repository
-                }
-
-                RepositoryResult repositoryResult = requireNonNull(repository.getMaterialized());
-                for (Map.Entry<DevCenter.Card, DevCenterMeasure> um : repositoryResult.getUpgradesAndMigrations().entrySet()) {
-                    resultsByCard.computeIfAbsent(um.getKey(), k -> new DevCenterResult.ByMeasure())
-                            .getMeasures().merge(um.getValue(), 1, Integer::sum);
-                }
+    private List<String> pathFromResults(Organization<?> organization) {
+        return pathFromResults(organization, results.isRoot());
+    }
 
-                if (devCenter.getSecurity() != null) {
-                    for (Map.Entry<DevCenterMeasure, Integer> sec : repositoryResult.getSecurityIssues().entrySet()) {
-                        resultsByCard.computeIfAbsent(devCenter.getSecurity(), k -> new DevCenterResult.ByMeasure())
-                                .getMeasures().merge(sec.getKey(), sec.getValue(), Integer::sum);
-                    }
-                }
-            }
-        });
+    public static DevCenterResultReducer fromDataTables(
+            DevCenter devCenter,
+            Organization<?> root,
+            @Nullable Reader upgradesAndMigrationsCsv,
+            @Nullable Reader securityIssuesCsv) {
+        return fromDataTables(devCenter, root, upgradesAndMigrationsCsv, securityIssuesCsv, null);
+    }
 
-        return new DevCenterResult(resultsByCard);
+    /**
+     * @param metricAggregatesCsv The rows of the {@link io.moderne.devcenter.table.MetricAggregates}
+     *                            data table, emitted by cards that summarize their metric.
+     */
+    public static DevCenterResultReducer fromDataTables(
+            DevCenter devCenter,
+            Organization<?> root,
+            @Nullable Reader upgradesAndMigrationsCsv,
+            @Nullable Reader securityIssuesCsv,
+            @Nullable Reader metricAggregatesCsv) {
+        return fromDataTables(devCenter, root, upgradesAndMigrationsCsv, securityIssuesCsv, metricAggregatesCsv, null);
     }
 
+    /**
+     * @param bucketCountsCsv The rows of the {@link io.moderne.devcenter.table.BucketCounts}
+     *                        data table, emitted by cards that are counted per occurrence.
+     */
     public static DevCenterResultReducer fromDataTables(
             DevCenter devCenter,
             Organization<?> root,
             @Nullable Reader upgradesAndMigrationsCsv,
-            @Nullable Reader securityIssuesCsv) {
-        assert upgradesAndMigrationsCsv != null || securityIssuesCsv != null :
-                "At least one of upgradesAndMigrationsCsv or securityIssuesCsv must be provided";
+            @Nullable Reader securityIssuesCsv,
+            @Nullable Reader metricAggregatesCsv,
+            @Nullable Reader bucketCountsCsv) {
+        assert upgradesAndMigrationsCsv != null || securityIssuesCsv != null ||
+               metricAggregatesCsv != null || bucketCountsCsv != null :
+                "At least one of upgradesAndMigrationsCsv, securityIssuesCsv, metricAggregatesCsv or bucketCountsCsv must be provided";
 
         Organization<RepositoryResult> results = root.rematerialize((org, repo) -> new RepositoryResult());
-        Map<RepositoryId, List<Organization<RepositoryResult>>> repositoryMap = repositoryMap(results, new HashMap<>());
+        Map<RepositoryId, List<RepositoryResult>> repositoryResults = repositoryResults(results);
 
         if (upgradesAndMigrationsCsv != null) {
-            new UpgradesAndMigrationsReader(devCenter, repositoryMap).read(upgradesAndMigrationsCsv);
+            new UpgradesAndMigrationsReader(devCenter, repositoryResults).read(upgradesAndMigrationsCsv);
         }
         if (securityIssuesCsv != null) {
-            new SecurityIssuesReader(devCenter, repositoryMap).read(securityIssuesCsv);
+            new SecurityIssuesReader(devCenter, repositoryResults).read(securityIssuesCsv);
+        }
+        if (metricAggregatesCsv != null) {
+            new MetricAggregatesReader(devCenter, repositoryResults).read(metricAggregatesCsv);
+        }
+        if (bucketCountsCsv != null) {
+            new BucketCountsReader(devCenter, repositoryResults).read(bucketCountsCsv);
         }
 
         return new DevCenterResultReducer(devCenter, results);
     }
 
     /**
-     * Recursively builds a map of repository IDs to the organizations that contain them.
-     * This allows for constant time lookup of which organizations contain a given repository as
-     * we read each row of a DevCenter data table CSV.
+     * Writes the materialized repository results to a binary snapshot that can later be
+     * loaded with {@link #fromSnapshot(DevCenter, Organization, Path)} instead of
+     * re-reading the data table CSVs.
      *
-     * @param org The organization to recurse from.
-     * @param map The map to populate with repository IDs and their associated organizations.
-     * @return A map of repository IDs to lists of organizations that contain them.
+     * @param snapshot The file to write the snapshot to.
+     * @throws UncheckedIOException if the snapshot cannot be written.
      */
-    static Map<RepositoryId, List<Organization<RepositoryResult>>> repositoryMap(
-            Organization<RepositoryResult> org,
-            Map<RepositoryId, List<Organization<RepositoryResult>>> map) {
-        for (RepositorySpec<RepositoryResult> r : org.getRepositories()) {
-            map.computeIfAbsent(r.getId(), k -> new ArrayList<>()).add(org);
+    public void writeSnapshot(Path snapshot) {
+        try {
+            DevCenterResultSnapshot.write(devCenter, results, snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write snapshot", e);
         }
-        for (Organization<RepositoryResult> c : org.getChildren()) {
-            repositoryMap(c, map);
+    }
+
+    /**
+     * Loads the repository results from a snapshot written by {@link #writeSnapshot(Path)}.
+     *
+     * @param devCenter The DevCenter the snapshot was written for.
+     * @param root      The organization tree to materialize the results into.
+     * @param snapshot  The snapshot file, which is memory-mapped while it is read.
+     * @return A reducer over the snapshot's results.
+     * @throws IllegalStateException if the snapshot was written for a DevCenter with a different spec.
+     * @throws UncheckedIOException  if the snapshot cannot be read.
+     */
+    public static DevCenterResultReducer fromSnapshot(DevCenter devCenter, Organization<?> root, Path snapshot) {
+        try {
+            return new DevCenterResultReducer(devCenter, DevCenterResultSnapshot.read(devCenter, root, snapshot));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read snapshot", e);
         }
+    }
+
+    /**
+     * Builds a map of repository IDs to every materialized result for that repository, one
+     * for each organization that contains it. This allows for constant time lookup of the
+     * results to update as we read each row of a DevCenter data table CSV.
+     *
+     * @param results The root of the results materialization.
+     * @return A map of repository IDs to the materialized results of that repository.
+     */
+    static Map<RepositoryId, List<RepositoryResult>> repositoryResults(Organization<RepositoryResult> results) {
+        Map<RepositoryId, List<RepositoryResult>> map = new HashMap<>();
+        results.forEachOrganization(org -> {
+            for (RepositorySpec<RepositoryResult> r : org.getRepositories()) {
+                map.computeIfAbsent(r.getId(), k -> new ArrayList<>(1)).add(requireNonNull(r.getMaterialized()));
+            }
+        });
         return map;
     }
 }
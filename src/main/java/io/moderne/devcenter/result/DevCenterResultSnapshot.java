@@ -0,0 +1,309 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.result;
+
+import io.moderne.devcenter.DevCenter;
+import io.moderne.devcenter.DevCenterMeasure;
+import io.moderne.devcenter.MetricAggregate;
+import io.moderne.organizations.Organization;
+import io.moderne.organizations.RepositoryId;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A compact binary snapshot of the materialized repository results of a
+ * {@link DevCenterResultReducer}, so that a restarted service can memory-map its
+ * previous state rather than re-parse the data table CSVs.
+ * <p>
+ * Layout (all integers big-endian, except varints, which are unsigned LEB128 so that the
+ * measure indexes of cards with fewer than 128 measures take a single byte):
+ * <pre>{@code
+ * int    magic ("DCRS")
+ * short  format version
+ * bytes  DevCenter spec (int length + UTF-8), see DevCenter#getSpec()
+ * int    repository count R
+ * R x    origin, path, branch (int length + UTF-8, length -1 for null)
+ * int    upgrade card count C
+ * C x    R varints, the measure index + 1 for each repository (0 when absent)
+ * int    security entry count S
+ * S x    int repository, varint measure index, int count
+ * int    metric aggregate count M
+ * M x    int repository, int upgrade card index, double sum, quantile sketch (int length + UTF-8)
+ * int    occurrence count O
+ * O x    int repository, int upgrade card index, varint measure index, int count
+ * }</pre>
+ * Cards and measures are referred to by their position in {@link DevCenter#getCards()}
+ * and {@link DevCenter.Card#getMeasures()}, so a snapshot is only valid for a DevCenter
+ * with the same spec. Reading a snapshot written for another spec is rejected.
+ */
+class DevCenterResultSnapshot {
+    private static final int MAGIC = 0x44435253;
+    private static final short FORMAT_VERSION = 4;
+
+    static void write(DevCenter devCenter, Organization<RepositoryResult> results, Path snapshot) throws IOException {
+        List<RepositoryId> ids = new ArrayList<>();
+        List<RepositoryResult> repositories = new ArrayList<>();
+        for (Map.Entry<RepositoryId, List<RepositoryResult>> entry : DevCenterResultReducer.repositoryResults(results).entrySet()) {
+            ids.add(entry.getKey());
+            repositories.add(entry.getValue().get(0));
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(snapshot)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            writeBytes(out, devCenter.getSpecBytes());
+
+            out.writeInt(ids.size());
+            for (RepositoryId id : ids) {
+                writeString(out, id.getOrigin());
+                writeString(out, id.getPath());
+                writeString(out, id.getBranch());
+            }
+
+            List<DevCenter.Card> upgrades = devCenter.getUpgradesAndMigrations();
+            out.writeInt(upgrades.size());
+            for (DevCenter.Card card : upgrades) {
+                List<DevCenterMeasure> measures = card.getMeasures();
+                Map<DevCenterMeasure, Integer> measureIndexes = new HashMap<>(measures.size() * 2);
+                for (int m = 0; m < measures.size(); m++) {
+                    measureIndexes.putIfAbsent(measures.get(m), m);
+                }
+                for (RepositoryResult repository : repositories) {
+                    DevCenterMeasure measure = repository.getUpgradesAndMigrations().get(card);
+                    writeVarInt(out, measure == null ? 0 : requireNonNull(measureIndexes.get(measure)) + 1);
+                }
+            }
+
+            DevCenter.Card security = devCenter.getSecurity();
+            int securityEntries = 0;
+            for (RepositoryResult repository : repositories) {
+                int[] securityIssues = repository.getSecurityIssues();
+                if (securityIssues != null) {
+                    for (int count : securityIssues) {
+                        if (count != 0) {
+                            securityEntries++;
+                        }
+                    }
+                }
+            }
+            out.writeInt(security == null ? 0 : securityEntries);
+            if (security != null) {
+                for (int i = 0; i < repositories.size(); i++) {
+                    int[] securityIssues = repositories.get(i).getSecurityIssues();
+                    if (securityIssues == null) {
+                        continue;
+                    }
+                    for (int m = 0; m < securityIssues.length; m++) {
+                        if (securityIssues[m] != 0) {
+                            out.writeInt(i);
+                            writeVarInt(out, m);
+                            out.writeInt(securityIssues[m]);
+                        }
+                    }
+                }
+            }
+
+            Map<DevCenter.Card, Integer> upgradeIndexes = new HashMap<>();
+            for (int c = 0; c < upgrades.size(); c++) {
+                upgradeIndexes.putIfAbsent(upgrades.get(c), c);
+            }
+            int metricAggregates = 0;
+            for (RepositoryResult repository : repositories) {
+                metricAggregates += repository.getMetricAggregates().size();
+            }
+            out.writeInt(metricAggregates);
+            for (int i = 0; i < repositories.size(); i++) {
+                for (Map.Entry<DevCenter.Card, MetricAggregate> metric : repositories.get(i).getMetricAggregates().entrySet()) {
+                    out.writeInt(i);
+                    out.writeInt(requireNonNull(upgradeIndexes.get(metric.getKey())));
+                    out.writeDouble(metric.getValue().getSum());
+                    writeString(out, metric.getValue().serializeSketch());
+                }
+            }
+
+            int occurrences = 0;
+            for (RepositoryResult repository : repositories) {
+                for (Map.Entry<DevCenter.Card, int[]> byCard : repository.getOccurrences().entrySet()) {
+                    for (int count : byCard.getValue()) {
+                        if (count != 0) {
+                            occurrences++;
+                        }
+                    }
+                }
+            }
+            out.writeInt(occurrences);
+            for (int i = 0; i < repositories.size(); i++) {
+                for (Map.Entry<DevCenter.Card, int[]> byCard : repositories.get(i).getOccurrences().entrySet()) {
+                    int card = requireNonNull(upgradeIndexes.get(byCard.getKey()));
+                    int[] counts = byCard.getValue();
+                    for (int m = 0; m < counts.length; m++) {
+                        if (counts[m] != 0) {
+                            out.writeInt(i);
+                            out.writeInt(card);
+                            writeVarInt(out, m);
+                            out.writeInt(counts[m]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static Organization<RepositoryResult> read(DevCenter devCenter, Organization<?> root, Path snapshot) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a DevCenter result snapshot: " + snapshot);
+        }
+        short formatVersion = buffer.getShort();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported DevCenter result snapshot version " + formatVersion + ": " + snapshot);
+        }
+        if (!Arrays.equals(readBytes(buffer), devCenter.getSpecBytes())) {
+            throw new IllegalStateException("DevCenter result snapshot " + snapshot +
+                                            " was written for a different DevCenter spec");
+        }
+
+        Organization<RepositoryResult> results = root.rematerialize((org, repo) -> new RepositoryResult());
+        Map<RepositoryId, List<RepositoryResult>> repositoryResults = DevCenterResultReducer.repositoryResults(results);
+
+        // Resolve the dictionary of repository ids to the results each entry populates,
+        // which is empty for repositories no longer in the organization tree.
+        int repositoryCount = buffer.getInt();
+        List<List<RepositoryResult>> repositories = new ArrayList<>(repositoryCount);
+        for (int i = 0; i < repositoryCount; i++) {
+            RepositoryId id = new RepositoryId(
+                    requireNonNull(readString(buffer)),
+                    requireNonNull(readString(buffer)),
+                    readString(buffer));
+            repositories.add(repositoryResults.getOrDefault(id, Collections.emptyList()));
+        }
+
+        List<DevCenter.Card> upgrades = devCenter.getUpgradesAndMigrations();
+        int cardCount = buffer.getInt();
+        for (int c = 0; c < cardCount; c++) {
+            DevCenter.Card card = upgrades.get(c);
+            List<DevCenterMeasure> measures = card.getMeasures();
+            for (int i = 0; i < repositoryCount; i++) {
+                int measure = readVarInt(buffer);
+                if (measure != 0) {
+                    for (RepositoryResult result : repositories.get(i)) {
+                        result.getUpgradesAndMigrations().put(card, measures.get(measure - 1));
+                    }
+                }
+            }
+        }
+
+        int securityEntries = buffer.getInt();
+        if (securityEntries > 0) {
+            DevCenter.Card security = requireNonNull(devCenter.getSecurity());
+            for (int e = 0; e < securityEntries; e++) {
+                int repository = buffer.getInt();
+                int measure = readVarInt(buffer);
+                int count = buffer.getInt();
+                for (RepositoryResult result : repositories.get(repository)) {
+                    result.addSecurityIssues(security, measure, count);
+                }
+            }
+        }
+
+        int metricAggregates = buffer.getInt();
+        for (int e = 0; e < metricAggregates; e++) {
+            int repository = buffer.getInt();
+            DevCenter.Card card = upgrades.get(buffer.getInt());
+            MetricAggregate metric = MetricAggregate.fromSerialized(buffer.getDouble(), requireNonNull(readString(buffer)));
+            for (RepositoryResult result : repositories.get(repository)) {
+                result.getMetricAggregates().put(card, metric);
+            }
+        }
+
+        int occurrences = buffer.getInt();
+        for (int e = 0; e < occurrences; e++) {
+            int repository = buffer.getInt();
+            DevCenter.Card card = upgrades.get(buffer.getInt());
+            int measure = readVarInt(buffer);
+            int count = buffer.getInt();
+            for (RepositoryResult result : repositories.get(repository)) {
+                result.addOccurrences(card, measure, count);
+            }
+        }
+
+        return results;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            writeBytes(out, s.getBytes(UTF_8));
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static @Nullable String readString(ByteBuffer buffer) {
+        byte[] bytes = readBytes(buffer);
+        return bytes == null ? null : new String(bytes, UTF_8);
+    }
+
+    private static byte @Nullable [] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.result;
+
+import io.moderne.devcenter.DevCenter;
+import io.moderne.devcenter.MetricAggregate;
+import io.moderne.organizations.RepositoryId;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.internal.StringUtils;
+
+import java.io.Reader;
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
+
+class MetricAggregatesReader {
+    private final Map<String, DevCenter.Card> cardsByName = new HashMap<>();
+    private final Map<RepositoryId, List<RepositoryResult>> repositoryResults;
+
+    public MetricAggregatesReader(DevCenter devCenter, Map<RepositoryId, List<RepositoryResult>> repositoryResults) {
+        for (DevCenter.Card card : devCenter.getCards()) {
+            cardsByName.putIfAbsent(card.getName(), card);
+        }
+        this.repositoryResults = repositoryResults;
+    }
+
+    public void read(Reader metricAggregates) {
+        new ChunkedCsvReader<>(MetricAggregatesColumn::fromString, this::parseRow, this::apply)
+                .read(metricAggregates);
+    }
+
+    private @Nullable ResolvedRow parseRow(List<MetricAggregatesColumn> headers, @Nullable String[] row) {
+        String origin = null;
+        String path = null;
+        String branch = null;
+        String cardName = null;
+        Double sum = null;
+        String quantileSketch = null;
+
+        for (int i = 0; i < row.length && i < headers.size(); i++) {
+            String value = row[i];
+            if (StringUtils.isBlank(value)) {
+                value = null;
+            }
+            switch (headers.get(i)) {
+                case REPOSITORY_ORIGIN:
+                    origin = value;
+                    break;
+                case REPOSITORY_PATH:
+                    path = value;
+                    break;
+                case REPOSITORY_BRANCH:
+                    branch = value;
+                    break;
+                case CARD:
+                    cardName = value;
+                    break;
+                case SUM:
+                    sum = Double.parseDouble(requireNonNull(value));
+                    break;
+                case QUANTILE_SKETCH:
+                    quantileSketch = value;
+                    break;
+            }
+        }
+
+        assert origin != null && path != null && sum != null && quantileSketch != null;
+
+        List<RepositoryResult> results = repositoryResults.getOrDefault(new RepositoryId(origin, path, branch), emptyList());
+        DevCenter.Card card = cardName == null ? null : cardsByName.get(cardName);
+        if (results.isEmpty() || card == null) {
+            return null;
+        }
+        return new ResolvedRow(results, card, MetricAggregate.fromSerialized(sum, quantileSketch));
+    }
+
+    private void apply(ResolvedRow row) {
+        for (RepositoryResult result : row.getResults()) {
+            result.getMetricAggregates().put(row.getCard(), row.getAggregate());
+        }
+    }
+
+    @Value
+    private static class ResolvedRow {
+        List<RepositoryResult> results;
+        DevCenter.Card card;
+        MetricAggregate aggregate;
+    }
+
+    @RequiredArgsConstructor
+    private enum MetricAggregatesColumn {
+        REPOSITORY_ORIGIN("repositoryOrigin"),
+        REPOSITORY_PATH("repositoryPath"),
+        REPOSITORY_BRANCH("repositoryBranch"),
+        CARD("card"),
+        SUM("sum"),
+        QUANTILE_SKETCH("quantileSketch"),
+        UNKNOWN("unknown");
+
+        private final String key;
+
+        public static MetricAggregatesColumn fromString(String key) {
+            for (MetricAggregatesColumn column : values()) {
+                if (column.key.equalsIgnoreCase(key)) {
+                    return column;
+                }
+            }
+            return UNKNOWN;
+        }
+    }
+}
@@ -17,7 +17,9 @@ package io.moderne.devcenter.result;
 
 import io.moderne.devcenter.DevCenter;
 import io.moderne.devcenter.DevCenterMeasure;
+import io.moderne.devcenter.MetricAggregate;
 import lombok.Getter;
+import org.jspecify.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -38,8 +40,36 @@ class RepositoryResult {
     private final Map<DevCenter.Card, DevCenterMeasure> upgradesAndMigrations = new HashMap<>();
 
     /**
-     * Since security issues are counted by occurrence, this is a map of security issue type to
-     * the number of occurrences.
+     * Since security issues are counted by occurrence, this is the number of occurrences of
+     * each security issue type, by the position of the measure in the security card. This is
+     * only allocated once the repository has a security issue.
      */
-    private final Map<DevCenterMeasure, Integer> securityIssues = new HashMap<>();
+    private int @Nullable [] securityIssues;
+
+    /**
+     * The summarized metric of each card that emits metric aggregates. These are shared by
+     * every result of the same repository, so they must not be merged into.
+     */
+    private final Map<DevCenter.Card, MetricAggregate> metricAggregates = new HashMap<>();
+
+    /**
+     * The number of occurrences of each measure of the upgrade and migration cards that are
+     * counted per occurrence, by the position of the measure in the card.
+     */
+    private final Map<DevCenter.Card, int[]> occurrences = new HashMap<>();
+
+    void addSecurityIssues(DevCenter.Card security, int measureIndex, int count) {
+        if (securityIssues == null) {
+            securityIssues = new int[security.getMeasures().size()];
+        }
+        securityIssues[measureIndex] += count;
+    }
+
+    void clearSecurityIssues() {
+        securityIssues = null;
+    }
+
+    void addOccurrences(DevCenter.Card card, int measureIndex, int count) {
+        occurrences.computeIfAbsent(card, c -> new int[c.getMeasures().size()])[measureIndex] += count;
+    }
 }
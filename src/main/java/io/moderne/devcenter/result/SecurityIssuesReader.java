@@ -15,106 +15,87 @@
  */
 package io.moderne.devcenter.result;
 
-import com.univocity.parsers.csv.CsvParser;
-import com.univocity.parsers.csv.CsvParserSettings;
 import io.moderne.devcenter.DevCenter;
-import io.moderne.organizations.Organization;
 import io.moderne.organizations.RepositoryId;
-import io.moderne.organizations.RepositorySpec;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.internal.StringUtils;
 
-import java.io.IOException;
 import java.io.Reader;
-import java.io.UncheckedIOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 
-@RequiredArgsConstructor
 class SecurityIssuesReader {
-    private final DevCenter devCenter;
-    private final Map<RepositoryId, List<Organization<RepositoryResult>>> repositoryMap;
+    private final DevCenter.@Nullable Card security;
+    private final Map<RepositoryId, List<RepositoryResult>> repositoryResults;
 
-    public void read(Reader securityIssues) {
-        CsvParserSettings settings = new CsvParserSettings();
-        settings.setLineSeparatorDetectionEnabled(true);
-
-        CsvParser parser = new CsvParser(settings);
-        parser.beginParsing(securityIssues);
-
-        try {
-            List<SecurityIssuesColumn> headers = null;
-            @Nullable String[] row;
+    public SecurityIssuesReader(DevCenter devCenter, Map<RepositoryId, List<RepositoryResult>> repositoryResults) {
+        this.security = devCenter.getSecurity();
+        this.repositoryResults = repositoryResults;
+    }
 
-            while ((row = parser.parseNext()) != null) {
-                if (row.length == 0 || (row.length == 1 && StringUtils.isBlank(row[0]))) {
-                    continue; // Skip empty lines
-                }
+    public void read(Reader securityIssues) {
+        new ChunkedCsvReader<>(SecurityIssuesColumn::fromString, this::parseRow, this::apply)
+                .read(securityIssues);
+    }
 
-                if (headers == null) {
-                    headers = new ArrayList<>();
-                    for (String header : row) {
-                        if (header != null) {
-                            headers.add(SecurityIssuesColumn.fromString(header.trim()));
-                        }
-                    }
-                } else {
-                    String origin = null;
-                    String path = null;
-                    String branch = null;
-                    Integer ordinal = null;
+    private @Nullable ResolvedRow parseRow(List<SecurityIssuesColumn> headers, @Nullable String[] row) {
+        String origin = null;
+        String path = null;
+        String branch = null;
+        Integer ordinal = null;
 
-                    for (int i = 0; i < row.length && i < headers.size(); i++) {
-                        String value = row[i];
-                        if (StringUtils.isBlank(value)) {
-                            value = null;
-                        }
-                        switch (headers.get(i)) {
-                            case REPOSITORY_ORIGIN:
-                                origin = value;
-                                break;
-                            case REPOSITORY_PATH:
-                                path = value;
-                                break;
-                            case REPOSITORY_BRANCH:
-                                branch = value;
-                                break;
-                            case ORDINAL:
-                                ordinal = Integer.parseInt(requireNonNull(value));
-                                break;
-                        }
-                    }
+        for (int i = 0; i < row.length && i < headers.size(); i++) {
+            String value = row[i];
+            if (StringUtils.isBlank(value)) {
+                value = null;
+            }
+            switch (headers.get(i)) {
+                case REPOSITORY_ORIGIN:
+                    origin = value;
+                    break;
+                case REPOSITORY_PATH:
+                    path = value;
+                    break;
+                case REPOSITORY_BRANCH:
+                    branch = value;
+                    break;
+                case ORDINAL:
+                    ordinal = Integer.parseInt(requireNonNull(value));
+                    break;
+            }
+        }
 
-                    assert origin != null && path != null && ordinal != null;
+        assert origin != null && path != null && ordinal != null;
 
-                    RepositoryId id = new RepositoryId(origin, path, branch);
+        List<RepositoryResult> results = repositoryResults.getOrDefault(new RepositoryId(origin, path, branch), emptyList());
+        if (results.isEmpty()) {
+            return null;
+        }
+        DevCenter.Card card = requireNonNull(security);
+        if (ordinal < 0 || ordinal >= card.getMeasures().size()) {
+            throw new IndexOutOfBoundsException("No measure with ordinal " + ordinal + " on card " + card.getName());
+        }
+        return new ResolvedRow(results, card, ordinal);
+    }
 
-                    nextOrg:
-                    for (Organization<RepositoryResult> org : repositoryMap.getOrDefault(id, emptyList())) {
-                        // TODO should we add org.getRepository(id) to moderne-organizations-format?
-                        for (RepositorySpec<RepositoryResult> repo : org.getRepositories()) {
-                            if (repo.getId().equals(id)) {
-                                RepositoryResult result = requireNonNull(repo.getMaterialized());
-                                DevCenter.Card security = requireNonNull(devCenter.getSecurity());
-                                result.getSecurityIssues().merge(security.getMeasures().get(ordinal), 1, Integer::sum);
-                                continue nextOrg;
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            throw new UncheckedIOException("Unable to read from CSV", new IOException(e));
-        } finally {
-            parser.stopParsing();
+    private void apply(ResolvedRow row) {
+        for (RepositoryResult result : row.getResults()) {
+            result.addSecurityIssues(row.getCard(), row.getMeasureIndex(), 1);
         }
     }
 
+    @Value
+    private static class ResolvedRow {
+        List<RepositoryResult> results;
+        DevCenter.Card card;
+        int measureIndex;
+    }
+
     @RequiredArgsConstructor
     private enum SecurityIssuesColumn {
         REPOSITORY_ORIGIN("repositoryOrigin"),
@@ -15,114 +15,90 @@
  */
 package io.moderne.devcenter.result;
 
-import com.univocity.parsers.csv.CsvParser;
-import com.univocity.parsers.csv.CsvParserSettings;
 import io.moderne.devcenter.DevCenter;
-import io.moderne.organizations.Organization;
+import io.moderne.devcenter.DevCenterMeasure;
 import io.moderne.organizations.RepositoryId;
-import io.moderne.organizations.RepositorySpec;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.internal.StringUtils;
 
-import java.io.IOException;
 import java.io.Reader;
-import java.io.UncheckedIOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 
-@RequiredArgsConstructor
 class UpgradesAndMigrationsReader {
-    private final DevCenter devCenter;
-    private final Map<RepositoryId, List<Organization<RepositoryResult>>> repositoryMap;
+    private final Map<String, DevCenter.Card> cardsByName = new HashMap<>();
+    private final Map<RepositoryId, List<RepositoryResult>> repositoryResults;
 
-    public void read(Reader upgradesAndMigrations) {
-        CsvParserSettings settings = new CsvParserSettings();
-        settings.setLineSeparatorDetectionEnabled(true);
-
-        CsvParser parser = new CsvParser(settings);
-        parser.beginParsing(upgradesAndMigrations);
-
-        try {
-            List<UpgradesAndMigrationsColumn> headers = null;
-            @Nullable String[] row;
-
-            while ((row = parser.parseNext()) != null) {
-                if (row.length == 0 || (row.length == 1 && StringUtils.isBlank(row[0]))) {
-                    continue; // Skip empty lines
-                }
+    public UpgradesAndMigrationsReader(DevCenter devCenter, Map<RepositoryId, List<RepositoryResult>> repositoryResults) {
+        for (DevCenter.Card card : devCenter.getCards()) {
+            cardsByName.putIfAbsent(card.getName(), card);
+        }
+        this.repositoryResults = repositoryResults;
+    }
 
-                if (headers == null) {
-                    headers = new ArrayList<>();
-                    for (String header : row) {
-                        if (header != null) {
-                            headers.add(UpgradesAndMigrationsColumn.fromString(header.trim()));
-                        }
-                    }
-                } else {
-                    String origin = null;
-                    String path = null;
-                    String branch = null;
-                    String cardName = null;
-                    Integer ordinal = null;
+    public void read(Reader upgradesAndMigrations) {
+        new ChunkedCsvReader<>(UpgradesAndMigrationsColumn::fromString, this::parseRow, this::apply)
+                .read(upgradesAndMigrations);
+    }
 
-                    for (int i = 0; i < row.length && i < headers.size(); i++) {
-                        String value = row[i];
-                        if (StringUtils.isBlank(value)) {
-                            value = null;
-                        }
-                        switch (headers.get(i)) {
-                            case REPOSITORY_ORIGIN:
-                                origin = value;
-                                break;
-                            case REPOSITORY_PATH:
-                                path = value;
-                                break;
-                            case REPOSITORY_BRANCH:
-                                branch = value;
-                                break;
-                            case CARD:
-                                cardName = value;
-                                break;
-                            case ORDINAL:
-                                ordinal = Integer.parseInt(requireNonNull(value));
-                                break;
-                        }
-                    }
+    private @Nullable ResolvedRow parseRow(List<UpgradesAndMigrationsColumn> headers, @Nullable String[] row) {
+        String origin = null;
+        String path = null;
+        String branch = null;
+        String cardName = null;
+        Integer ordinal = null;
+
+        for (int i = 0; i < row.length && i < headers.size(); i++) {
+            String value = row[i];
+            if (StringUtils.isBlank(value)) {
+                value = null;
+            }
+            switch (headers.get(i)) {
+                case REPOSITORY_ORIGIN:
+                    origin = value;
+                    break;
+                case REPOSITORY_PATH:
+                    path = value;
+                    break;
+                case REPOSITORY_BRANCH:
+                    branch = value;
+                    break;
+                case CARD:
+                    cardName = value;
+                    break;
+                case ORDINAL:
+                    ordinal = Integer.parseInt(requireNonNull(value));
+                    break;
+            }
+        }
 
-                    assert origin != null && path != null && ordinal != null;
+        assert origin != null && path != null && ordinal != null;
 
-                    RepositoryId id = new RepositoryId(origin, path, branch);
+        List<RepositoryResult> results = repositoryResults.getOrDefault(new RepositoryId(origin, path, branch), emptyList());
+        DevCenter.Card card = cardName == null ? null : cardsByName.get(cardName);
+        if (results.isEmpty() || card == null) {
+            return null;
+        }
+        return new ResolvedRow(results, card, card.getMeasure(ordinal));
+    }
 
-                    nextOrg:
-                    for (Organization<RepositoryResult> org : repositoryMap.getOrDefault(id, emptyList())) {
-                        // TODO should we add org.getRepository(id) to moderne-organizations-format?
-                        for (RepositorySpec<RepositoryResult> repo : org.getRepositories()) {
-                            if (repo.getId().equals(id)) {
-                                RepositoryResult result = requireNonNull(repo.getMaterialized());
-                                for (DevCenter.Card card : devCenter.getCards()) {
-                                    if (card.getName().equals(cardName)) {
-                                        result.getUpgradesAndMigrations().put(card,
-                                                card.getMeasures().get(ordinal));
-                                        continue nextOrg;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            throw new UncheckedIOException("Unable to read from CSV", new IOException(e));
-        } finally {
-            parser.stopParsing();
+    private void apply(ResolvedRow row) {
+        for (RepositoryResult result : row.getResults()) {
+            result.getUpgradesAndMigrations().put(row.getCard(), row.getMeasure());
         }
     }
 
+    @Value
+    private static class ResolvedRow {
+        List<RepositoryResult> results;
+        DevCenter.Card card;
+        DevCenterMeasure measure;
+    }
+
     @RequiredArgsConstructor
     private enum UpgradesAndMigrationsColumn {
         REPOSITORY_ORIGIN("repositoryOrigin"),
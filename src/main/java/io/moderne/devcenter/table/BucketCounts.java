@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.table;
+
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+
+public class BucketCounts extends DataTable<BucketCounts.Row> {
+
+    public BucketCounts(Recipe recipe) {
+        super(recipe, "Bucket counts",
+                "The number of occurrences in each bucket of a DevCenter histogram card.");
+    }
+
+    @Override
+    protected boolean allowWritingInThisCycle(ExecutionContext ctx) {
+        // The counts come from a histogram card's single pass over its upstream data table,
+        // which is never cycle 1 unless the card counts at the end of a one-cycle run.
+        return true;
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Card",
+                description = "The display name of the DevCenter card.")
+        String card;
+
+        @Column(displayName = "Ordinal",
+                description = "The ordinal position of this bucket relative to the card's other buckets.")
+        int ordinal;
+
+        @Column(displayName = "Value",
+                description = "The name of the bucket.")
+        String value;
+
+        @Column(displayName = "Count",
+                description = "The number of occurrences in the repository that fall into this bucket.")
+        int count;
+    }
+}
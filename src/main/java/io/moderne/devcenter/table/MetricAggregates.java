@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.table;
+
+import io.moderne.devcenter.MetricAggregate;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+
+public class MetricAggregates extends DataTable<MetricAggregates.Row> {
+
+    public MetricAggregates(Recipe recipe) {
+        super(recipe, "Metric aggregates",
+                "The summarized values of a DevCenter card's metric, which can be merged across repositories.");
+    }
+
+    public void insertRow(ExecutionContext ctx, String card, MetricAggregate aggregate) {
+        insertRow(ctx, new Row(
+                card,
+                aggregate.getCount(),
+                aggregate.getSum(),
+                aggregate.getMin(),
+                aggregate.getMax(),
+                aggregate.serializeSketch()
+        ));
+    }
+
+    @Override
+    protected boolean allowWritingInThisCycle(ExecutionContext ctx) {
+        // A card's aggregate is written once its upstream data table is populated: in cycle 2,
+        // or from onComplete after the run's last cycle, whichever cycle that was.
+        return true;
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Card",
+                description = "The display name of the DevCenter card.")
+        String card;
+
+        @Column(displayName = "Count",
+                description = "The number of numeric values of the metric.")
+        long count;
+
+        @Column(displayName = "Sum",
+                description = "The sum of the values of the metric.")
+        double sum;
+
+        @Column(displayName = "Minimum",
+                description = "The smallest value of the metric.")
+        @Nullable
+        Double min;
+
+        @Column(displayName = "Maximum",
+                description = "The largest value of the metric.")
+        @Nullable
+        Double max;
+
+        @Column(displayName = "Quantile sketch",
+                description = "The serialized quantile sketch of the values of the metric, which is merged " +
+                              "with those of other repositories to estimate percentiles across them.")
+        String quantileSketch;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.table;
+
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+
+public class MetricCardScans extends DataTable<MetricCardScans.Row> {
+
+    public MetricCardScans(Recipe recipe) {
+        super(recipe, "Metric card scans",
+                "How much of its input data table each bucketed DevCenter card read to aggregate a repository.");
+    }
+
+    @Override
+    protected boolean allowWritingInThisCycle(ExecutionContext ctx) {
+        // Reported alongside the card's own rows, so in whichever cycle the card aggregated.
+        return true;
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Card",
+                description = "The display name of the DevCenter card.")
+        String card;
+
+        @Column(displayName = "Input data table",
+                description = "The fully qualified class name of the data table the card reads.")
+        String inputDataTable;
+
+        @Column(displayName = "Tables read",
+                description = "The number of data tables, one per group, of the input data table's class that were read.")
+        int tablesRead;
+
+        @Column(displayName = "Rows read",
+                description = "The number of rows read. Cards that share an input data table share one " +
+                              "read of its rows, so each reports the same count.")
+        long rowsRead;
+    }
+}
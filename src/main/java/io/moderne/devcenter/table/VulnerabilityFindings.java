@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.table;
+
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+
+public class VulnerabilityFindings extends DataTable<VulnerabilityFindings.Row> {
+
+    public VulnerabilityFindings(Recipe recipe) {
+        super(recipe, "Vulnerability findings",
+                "The number of vulnerable dependency findings folded into the single measure a DevCenter vulnerability card reports.");
+    }
+
+    @Override
+    protected boolean allowWritingInThisCycle(ExecutionContext ctx) {
+        // In its per repository mode, DependencyVulnerabilityCheck reports once the run is complete,
+        // which may be in a later cycle. The card writes each build file's findings only once.
+        return true;
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Card",
+                description = "The display name of the DevCenter card.")
+        String card;
+
+        @Column(displayName = "Source path",
+                description = "The build file the findings are for, or empty when they are for the whole repository.")
+        @Nullable
+        String sourcePath;
+
+        @Column(displayName = "Findings",
+                description = "The number of vulnerable dependency findings.")
+        int findings;
+    }
+}
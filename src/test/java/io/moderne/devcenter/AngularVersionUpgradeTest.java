@@ -149,4 +149,17 @@ class AngularVersionUpgradeTest implements RewriteTest {
         assertThat(recipe.getMeasures()).containsExactlyElementsOf(expectedMeasures);
         assertThat(recipe.ordinal(AngularVersionUpgrade.Measure.Completed)).isEqualTo(expectedCompletedOrdinal);
     }
+
+    @Test
+    void bucketsByLagAtTierBoundaries() {
+        assertThat(AngularVersionUpgrade.bucketFor(22, 21)).isEqualTo(Completed);
+        assertThat(AngularVersionUpgrade.bucketFor(21, 21)).isEqualTo(Completed);
+        assertThat(AngularVersionUpgrade.bucketFor(20, 21)).isEqualTo(Lag1Major);
+        assertThat(AngularVersionUpgrade.bucketFor(19, 21)).isEqualTo(Lag2to4Majors);
+        assertThat(AngularVersionUpgrade.bucketFor(17, 21)).isEqualTo(Lag2to4Majors);
+        assertThat(AngularVersionUpgrade.bucketFor(16, 21)).isEqualTo(Lag5to9Majors);
+        assertThat(AngularVersionUpgrade.bucketFor(12, 21)).isEqualTo(Lag5to9Majors);
+        assertThat(AngularVersionUpgrade.bucketFor(11, 21)).isEqualTo(Lag10PlusMajors);
+        assertThat(AngularVersionUpgrade.bucketFor(2, 21)).isEqualTo(Lag10PlusMajors);
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.moderne.devcenter.table.BucketCounts;
+import io.moderne.devcenter.table.MetricCardScans;
+import io.moderne.devcenter.table.UpgradesAndMigrations;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RewriteTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class BucketedHistogramCardTest implements RewriteTest {
+
+    private static final String CARD_RECIPE_NAME = "io.moderne.devcenter.test.EmitAndCount";
+    private static final String EMITTER_FQN = "io.moderne.devcenter.BucketedMetricCardTest$EmitLcomValues";
+    private static final String LCOM_TABLE_FQN = "io.moderne.devcenter.BucketedMetricCardTest$LcomTable";
+
+    @Language("yaml")
+    private static String pipelineYaml(String values, boolean aggregateAtEndOfRun) {
+        return """
+          type: specs.openrewrite.org/v1beta/recipe
+          name: %s
+          displayName: Emit then count
+          description: Pipeline that emits a data table and then counts its rows into buckets.
+          recipeList:
+            - %s:
+                values: %s
+            - io.moderne.devcenter.BucketedHistogramCard:
+                inputDataTable: %s
+                cardName: Class cohesion
+                column: lcom4
+                aggregateAtEndOfRun: %s
+                buckets:
+                  - name: LOW
+                    moreThan: 10
+                  - name: MEDIUM
+                    moreThan: 3
+                  - name: HIGH
+                    moreThan: 0
+          """.formatted(CARD_RECIPE_NAME, EMITTER_FQN, values, LCOM_TABLE_FQN, aggregateAtEndOfRun);
+    }
+
+    @DocumentExample
+    @Test
+    void countsEveryRowIntoItsBucket() {
+        // [1, 2] → HIGH, [4, 6, 8] → MEDIUM, [12] → LOW
+        rewriteRun(
+          spec -> spec
+            .recipeFromYaml(pipelineYaml("[1.0, 2.0, 4.0, 6.0, 8.0, 12.0]", false), CARD_RECIPE_NAME)
+            .dataTable(BucketCounts.Row.class, rows ->
+              assertThat(rows).containsExactlyInAnyOrder(
+                new BucketCounts.Row("Class cohesion", 0, "LOW", 1),
+                new BucketCounts.Row("Class cohesion", 1, "MEDIUM", 3),
+                new BucketCounts.Row("Class cohesion", 2, "HIGH", 2)
+              ))
+            .dataTable(UpgradesAndMigrations.Row.class, rows -> assertThat(rows).isEmpty()),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void emptyBucketsAreNotEmitted() {
+        rewriteRun(
+          spec -> spec
+            .recipeFromYaml(pipelineYaml("[1.0, 2.0]", false), CARD_RECIPE_NAME)
+            .dataTable(BucketCounts.Row.class, rows ->
+              assertThat(rows).containsExactly(
+                new BucketCounts.Row("Class cohesion", 2, "HIGH", 2)
+              )),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void countsAtEndOfRunWithoutAnotherCycle() {
+        rewriteRun(
+          spec -> spec
+            .recipeFromYaml(pipelineYaml("[4.0, 12.0]", true), CARD_RECIPE_NAME)
+            .cycles(1)
+            .expectedCyclesThatMakeChanges(0)
+            .dataTable(BucketCounts.Row.class, rows ->
+              assertThat(rows).containsExactlyInAnyOrder(
+                new BucketCounts.Row("Class cohesion", 0, "LOW", 1),
+                new BucketCounts.Row("Class cohesion", 1, "MEDIUM", 1)
+              )),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void sharesOnePassWithMetricCardsOfTheSameTable() {
+        rewriteRun(
+          spec -> spec
+            .recipeFromYaml("""
+              type: specs.openrewrite.org/v1beta/recipe
+              name: %s
+              displayName: Emit then count and bucket
+              description: Pipeline that emits a data table and then both counts and buckets it.
+              recipeList:
+                - %s:
+                    values: [4.0, 12.0]
+                - io.moderne.devcenter.BucketedHistogramCard:
+                    inputDataTable: %s
+                    cardName: Class cohesion
+                    column: lcom4
+                    emitCardScans: true
+                    buckets:
+                      - name: LOW
+                        moreThan: 10
+                      - name: HIGH
+                        moreThan: 0
+                - io.moderne.devcenter.BucketedMetricCard:
+                    inputDataTable: %s
+                    cardName: Worst class cohesion
+                    column: lcom4
+                    aggregation: MAX
+                    emitCardScans: true
+                    buckets:
+                      - name: LOW
+                        moreThan: 10
+                      - name: HIGH
+                        moreThan: 0
+              """.formatted(CARD_RECIPE_NAME, EMITTER_FQN, LCOM_TABLE_FQN, LCOM_TABLE_FQN), CARD_RECIPE_NAME)
+            .dataTable(BucketCounts.Row.class, rows ->
+              assertThat(rows).containsExactlyInAnyOrder(
+                new BucketCounts.Row("Class cohesion", 0, "LOW", 1),
+                new BucketCounts.Row("Class cohesion", 1, "HIGH", 1)
+              ))
+            .dataTable(UpgradesAndMigrations.Row.class, rows ->
+              assertThat(rows).containsExactly(
+                new UpgradesAndMigrations.Row("Worst class cohesion", 0, "LOW", null)
+              ))
+            .dataTable(MetricCardScans.Row.class, rows ->
+              assertThat(rows).containsExactlyInAnyOrder(
+                new MetricCardScans.Row("Class cohesion", LCOM_TABLE_FQN, 1, 2),
+                new MetricCardScans.Row("Worst class cohesion", LCOM_TABLE_FQN, 1, 2)
+              )),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void isAPerOccurrenceCard() throws Exception {
+        DevCenter devCenter = new DevCenter(new BucketedHistogramCard(
+          LCOM_TABLE_FQN,
+          "Class cohesion",
+          "lcom4",
+          new Bucket[]{new Bucket("LOW", 10), new Bucket("HIGH", 0)},
+          null));
+
+        assertThat(devCenter.getCard("Class cohesion").getAggregation())
+          .isEqualTo(DevCenter.Aggregation.PER_OCCURRENCE);
+        JsonNode card = new ObjectMapper().readTree(devCenter.getSpec()).get("upgradesAndMigrations").get(0);
+        assertThat(card.get("aggregation").asText()).isEqualTo("PER_OCCURRENCE");
+    }
+}
@@ -15,6 +15,8 @@
  */
 package io.moderne.devcenter;
 
+import io.moderne.devcenter.table.MetricAggregates;
+import io.moderne.devcenter.table.MetricCardScans;
 import io.moderne.devcenter.table.UpgradesAndMigrations;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
@@ -22,17 +24,25 @@ import org.intellij.lang.annotations.Language;
 import org.junit.jupiter.api.Test;
 import org.openrewrite.Column;
 import org.openrewrite.DataTable;
+import org.openrewrite.DataTableExecutionContextView;
+import org.openrewrite.DataTableStore;
 import org.openrewrite.DocumentExample;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryDataTableStore;
+import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.Option;
 import org.openrewrite.Recipe;
 import org.openrewrite.Tree;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.test.RewriteTest;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withPercentage;
 import static org.assertj.core.groups.Tuple.tuple;
 import static org.openrewrite.java.Assertions.java;
 
@@ -158,6 +168,51 @@ class BucketedMetricCardTest implements RewriteTest {
         );
     }
 
+    @Test
+    void p99LandsInLow() {
+        // P99 of [1..9, 12] ≈ 12 → LOW (largest moreThan ≤ 12 is 10) → ordinal 0
+        rewriteRun(
+          spec -> spec
+            .recipeFromYaml(pipelineYaml("P99", "[1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 12.0]"), CARD_RECIPE_NAME)
+            .dataTable(UpgradesAndMigrations.Row.class, rows ->
+              assertThat(rows).containsExactly(
+                new UpgradesAndMigrations.Row("Class cohesion", 0, "LOW", null)
+              )),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void medianLandsInMedium() {
+        // MEDIAN of [1, 2, 4, 20, 40] ≈ 4 → MEDIUM (largest moreThan ≤ 4 is 3) → ordinal 1
+        rewriteRun(
+          spec -> spec
+            .recipeFromYaml(pipelineYaml("median", "[1.0, 2.0, 4.0, 20.0, 40.0]"), CARD_RECIPE_NAME)
+            .dataTable(UpgradesAndMigrations.Row.class, rows ->
+              assertThat(rows).containsExactly(
+                new UpgradesAndMigrations.Row("Class cohesion", 1, "MEDIUM", null)
+              )),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void approximateUniqueCountsDistinctValues() {
+        // Distinct values in [2, 4, 2, 4, 6] ≈ 3 → MEDIUM (largest moreThan ≤ 3 is 3) → ordinal 1
+        rewriteRun(
+          spec -> spec
+            .recipeFromYaml(pipelineYaml("APPROXIMATE_UNIQUE", "[2.0, 4.0, 2.0, 4.0, 6.0]"), CARD_RECIPE_NAME)
+            .dataTable(UpgradesAndMigrations.Row.class, rows ->
+              assertThat(rows).containsExactly(
+                new UpgradesAndMigrations.Row("Class cohesion", 1, "MEDIUM", null)
+              )),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
     @Test
     void aggregationIsCaseInsensitive() {
         // lowercase "max" should still resolve to MAX
@@ -203,6 +258,255 @@ class BucketedMetricCardTest implements RewriteTest {
         );
     }
 
+    @Test
+    void cardsSharingInputTableAreEachAggregated() {
+        var ctx = new InMemoryExecutionContext();
+        AtomicInteger lcomReads = new AtomicInteger();
+        DataTableExecutionContextView.view(ctx).setDataTableStore(countingReads(
+          new InMemoryDataTableStore(), LcomTable.class, lcomReads));
+
+        // MAX of [2, 4, 12] = 12 → LOW, MIN of [2, 4, 12] = 2 → HIGH
+        rewriteRun(
+          spec -> spec
+            .executionContext(ctx)
+            .recipeFromYaml("""
+              type: specs.openrewrite.org/v1beta/recipe
+              name: %s
+              displayName: Emit then bucket twice
+              description: Pipeline that emits a data table and then buckets it with two cards.
+              recipeList:
+                - %s:
+                    values: [2.0, 4.0, 12.0]
+                - io.moderne.devcenter.BucketedMetricCard:
+                    inputDataTable: %s
+                    cardName: Worst class cohesion
+                    column: lcom4
+                    aggregation: MAX
+                    buckets:
+                      - name: LOW
+                        moreThan: 10
+                      - name: HIGH
+                        moreThan: 0
+                - io.moderne.devcenter.BucketedMetricCard:
+                    inputDataTable: %s
+                    cardName: Best class cohesion
+                    column: lcom4
+                    aggregation: MIN
+                    buckets:
+                      - name: LOW
+                        moreThan: 10
+                      - name: HIGH
+                        moreThan: 0
+              """.formatted(CARD_RECIPE_NAME, EMITTER_FQN, LCOM_TABLE_FQN, LCOM_TABLE_FQN), CARD_RECIPE_NAME)
+            // Both cards are fed from one read of the table's rows
+            .afterRecipe(run -> assertThat(lcomReads).hasValue(1))
+            .dataTable(UpgradesAndMigrations.Row.class, rows ->
+              assertThat(rows).containsExactlyInAnyOrder(
+                new UpgradesAndMigrations.Row("Worst class cohesion", 0, "LOW", null),
+                new UpgradesAndMigrations.Row("Best class cohesion", 1, "HIGH", null)
+              )),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void aggregatesAtEndOfRunWithoutAnotherCycle() {
+        var ctx = new InMemoryExecutionContext();
+        DataTableExecutionContextView.view(ctx).setDataTableStore(new InMemoryDataTableStore());
+
+        // AVERAGE of [2, 4, 6] = 4 → MEDIUM (largest moreThan ≤ 4 is 3) → ordinal 1
+        rewriteRun(
+          spec -> spec
+            .executionContext(ctx)
+            .recipeFromYaml("""
+              type: specs.openrewrite.org/v1beta/recipe
+              name: %s
+              displayName: Emit then bucket at end of run
+              description: Pipeline that emits a data table and then buckets it once the run is complete.
+              recipeList:
+                - %s:
+                    values: [2.0, 4.0, 6.0]
+                - io.moderne.devcenter.BucketedMetricCard:
+                    inputDataTable: %s
+                    cardName: Class cohesion
+                    column: lcom4
+                    aggregation: AVERAGE
+                    aggregateAtEndOfRun: true
+                    buckets:
+                      - name: LOW
+                        moreThan: 10
+                      - name: MEDIUM
+                        moreThan: 3
+                      - name: HIGH
+                        moreThan: 0
+              """.formatted(CARD_RECIPE_NAME, EMITTER_FQN, LCOM_TABLE_FQN), CARD_RECIPE_NAME)
+            .expectedCyclesThatMakeChanges(0)
+            // Nothing asks for a second cycle, even though the default allows one.
+            .afterRecipe(run -> assertThat(ctx.getCycle()).isEqualTo(1))
+            .dataTable(UpgradesAndMigrations.Row.class, rows ->
+              assertThat(rows).containsExactly(
+                new UpgradesAndMigrations.Row("Class cohesion", 1, "MEDIUM", null)
+              )),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void aggregatesAtEndOfRunOnceWhenAnotherRecipeCausesASecondCycle() {
+        var ctx = new InMemoryExecutionContext();
+        DataTableExecutionContextView.view(ctx).setDataTableStore(new InMemoryDataTableStore());
+
+        rewriteRun(
+          spec -> spec
+            .executionContext(ctx)
+            .recipeFromYaml("""
+              type: specs.openrewrite.org/v1beta/recipe
+              name: %s
+              displayName: Emit then bucket at end of run in two cycles
+              description: Pipeline that emits a data table, asks for a second cycle, and buckets it once the run is complete.
+              recipeList:
+                - %s:
+                    values: [2.0, 4.0, 6.0]
+                - io.moderne.devcenter.RequestSecondCycle
+                - io.moderne.devcenter.BucketedMetricCard:
+                    inputDataTable: %s
+                    cardName: Class cohesion
+                    column: lcom4
+                    aggregation: AVERAGE
+                    emitMetricAggregates: true
+                    aggregateAtEndOfRun: true
+                    buckets:
+                      - name: LOW
+                        moreThan: 10
+                      - name: MEDIUM
+                        moreThan: 3
+                      - name: HIGH
+                        moreThan: 0
+              """.formatted(CARD_RECIPE_NAME, EMITTER_FQN, LCOM_TABLE_FQN), CARD_RECIPE_NAME)
+            .afterRecipe(run -> assertThat(ctx.getCycle()).isEqualTo(2))
+            .dataTable(UpgradesAndMigrations.Row.class, rows ->
+              assertThat(rows).containsExactly(
+                new UpgradesAndMigrations.Row("Class cohesion", 1, "MEDIUM", null)
+              ))
+            // Aggregated once, over the rows of the first cycle only
+            .dataTable(MetricAggregates.Row.class, rows ->
+              assertThat(rows).singleElement()
+                .extracting(MetricAggregates.Row::getCount)
+                .isEqualTo(3L)),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void reportsRowsAndTablesRead() {
+        rewriteRun(
+          spec -> spec
+            .recipeFromYaml("""
+              type: specs.openrewrite.org/v1beta/recipe
+              name: %s
+              displayName: Emit then bucket with card scans
+              description: Pipeline that emits a data table, then buckets it and reports how much of it was read.
+              recipeList:
+                - %s:
+                    values: [2.0, 4.0, 6.0]
+                - io.moderne.devcenter.BucketedMetricCard:
+                    inputDataTable: %s
+                    cardName: Class cohesion
+                    column: lcom4
+                    aggregation: AVERAGE
+                    emitCardScans: true
+                    buckets:
+                      - name: LOW
+                        moreThan: 10
+                      - name: HIGH
+                        moreThan: 0
+              """.formatted(CARD_RECIPE_NAME, EMITTER_FQN, LCOM_TABLE_FQN), CARD_RECIPE_NAME)
+            .dataTable(MetricCardScans.Row.class, rows ->
+              assertThat(rows).containsExactly(
+                new MetricCardScans.Row("Class cohesion", LCOM_TABLE_FQN, 1, 3)
+              )),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void reportsScansOnlyWhenAsked() {
+        var ctx = new InMemoryExecutionContext();
+        DataTableExecutionContextView.view(ctx).setDataTableStore(new InMemoryDataTableStore());
+
+        rewriteRun(
+          spec -> spec
+            .executionContext(ctx)
+            .recipeFromYaml(pipelineYaml("AVERAGE", "[2.0, 4.0, 6.0]"), CARD_RECIPE_NAME)
+            .afterRecipe(run -> assertThat(DataTableExecutionContextView.view(ctx).getDataTableStore().getDataTables())
+              .noneMatch(MetricCardScans.class::isInstance)),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void emitsMetricAggregates() {
+        rewriteRun(
+          spec -> spec
+            .recipeFromYaml("""
+              type: specs.openrewrite.org/v1beta/recipe
+              name: %s
+              displayName: Emit then bucket with aggregates
+              description: Pipeline that emits a data table, then buckets and summarizes it.
+              recipeList:
+                - %s:
+                    values: [2.0, 4.0, 12.0]
+                - io.moderne.devcenter.BucketedMetricCard:
+                    inputDataTable: %s
+                    cardName: Class cohesion
+                    column: lcom4
+                    aggregation: AVERAGE
+                    emitMetricAggregates: true
+                    buckets:
+                      - name: LOW
+                        moreThan: 10
+                      - name: HIGH
+                        moreThan: 0
+              """.formatted(CARD_RECIPE_NAME, EMITTER_FQN, LCOM_TABLE_FQN), CARD_RECIPE_NAME)
+            .dataTable(MetricAggregates.Row.class, rows -> {
+                assertThat(rows).hasSize(1);
+                MetricAggregates.Row row = rows.getFirst();
+                assertThat(row.getCard()).isEqualTo("Class cohesion");
+                assertThat(row.getCount()).isEqualTo(3);
+                assertThat(row.getSum()).isEqualTo(18.0);
+                assertThat(row.getMin()).isEqualTo(2.0);
+                assertThat(row.getMax()).isEqualTo(12.0);
+                assertThat(MetricAggregate.fromSerialized(row.getSum(), row.getQuantileSketch()).quantile(0.5))
+                  .isCloseTo(4.0, withPercentage(1));
+            }),
+          //language=java
+          java("class Test {}")
+        );
+    }
+
+    @Test
+    void compiledMatcherAgreesWithMatch() {
+        // Hundreds of fine-grained buckets, configured from the top down, with a shared lower bound
+        var buckets = new Bucket[301];
+        for (int i = 0; i < 300; i++) {
+            buckets[i] = new Bucket("≥ " + (300 - i), 300 - i);
+        }
+        buckets[300] = new Bucket("Also ≥ 150", 150);
+
+        var matcher = Bucket.Matcher.compile(buckets);
+        for (double value = -1; value <= 302; value += 0.25) {
+            int position = matcher.match(value);
+            assertThat(position < 0 ? null : buckets[position])
+              .describedAs("value %s", value)
+              .isSameAs(Bucket.match(value, buckets));
+        }
+    }
+
     @Test
     void measuresFollowListOrder() {
         var card = new BucketedMetricCard(
@@ -224,6 +528,23 @@ class BucketedMetricCardTest implements RewriteTest {
             tuple("HIGH", 2));
     }
 
+    /**
+     * @return A store that counts how many times the rows of a data table class are read from it.
+     */
+    private static DataTableStore countingReads(DataTableStore store, Class<?> dataTableClass, AtomicInteger reads) {
+        return (DataTableStore) Proxy.newProxyInstance(DataTableStore.class.getClassLoader(),
+          new Class<?>[]{DataTableStore.class}, (proxy, method, args) -> {
+              if ("getRows".equals(method.getName()) && args[0] == dataTableClass) {
+                  reads.incrementAndGet();
+              }
+              try {
+                  return method.invoke(store, args);
+              } catch (InvocationTargetException e) {
+                  throw e.getCause();
+              }
+          });
+    }
+
     /**
      * Test-only data table used to exercise {@link BucketedMetricCard}.
      */
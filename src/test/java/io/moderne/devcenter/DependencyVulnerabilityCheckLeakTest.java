@@ -22,6 +22,7 @@ import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.RecipeScheduler;
 import org.openrewrite.SourceFile;
 import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.java.dependencies.DependencyVulnerabilityCheckBase;
 import org.openrewrite.maven.MavenParser;
 
 import java.nio.file.Path;
@@ -82,6 +83,30 @@ class DependencyVulnerabilityCheckLeakTest {
                 .isEmpty();
     }
 
+    @Test
+    void vulnerabilityDatabaseIsSharedAcrossBuildFiles() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        var scan = new org.openrewrite.java.dependencies.DependencyVulnerabilityCheck(
+                "runtime", true, DependencyVulnerabilityCheckBase.UpgradeDelta.none, null, null);
+
+        DependencyVulnerabilityCheckBase.Accumulator first = DependencyVulnerabilityCheck.newAccumulator(scan, ctx);
+        DependencyVulnerabilityCheckBase.Accumulator second = DependencyVulnerabilityCheck.newAccumulator(scan, ctx);
+
+        assertThat(second.getDb()).isSameAs(first.getDb()).isNotEmpty();
+        assertThat(second.getVulnerabilities()).isNotSameAs(first.getVulnerabilities());
+    }
+
+    @Test
+    void vulnerabilityDatabaseIsReleasedWithItsRun() {
+        var scan = new org.openrewrite.java.dependencies.DependencyVulnerabilityCheck(
+                "runtime", true, DependencyVulnerabilityCheckBase.UpgradeDelta.none, null, null);
+
+        DependencyVulnerabilityCheckBase.Accumulator first = DependencyVulnerabilityCheck.newAccumulator(scan, new InMemoryExecutionContext());
+        DependencyVulnerabilityCheckBase.Accumulator second = DependencyVulnerabilityCheck.newAccumulator(scan, new InMemoryExecutionContext());
+
+        assertThat(second.getDb()).isNotSameAs(first.getDb()).isNotEmpty();
+    }
+
     private static List<SourceFile> parsePoms(int count) {
         Function<Integer, String> pom = i -> "<project>\n" +
                 "  <groupId>com.example</groupId>\n" +
@@ -15,14 +15,25 @@
  */
 package io.moderne.devcenter;
 
+import io.moderne.devcenter.internal.AdvisoryIndex;
 import io.moderne.devcenter.table.UpgradesAndMigrations;
+import io.moderne.devcenter.table.VulnerabilityFindings;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.DataTableExecutionContextView;
+import org.openrewrite.InMemoryDataTableStore;
+import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.test.RewriteTest;
 
+import java.nio.file.Path;
+import java.util.List;
+
 import static io.moderne.devcenter.DependencyVulnerabilityCheck.SeverityMeasure.High;
 import static io.moderne.devcenter.DependencyVulnerabilityCheck.SeverityMeasure.Low;
+import static io.moderne.devcenter.DependencyVulnerabilityCheck.UpgradeDeltaMeasure.NotFixable;
 import static io.moderne.devcenter.DependencyVulnerabilityCheck.UpgradeDeltaMeasure.Patch;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.mavenProject;
 import static org.openrewrite.maven.Assertions.pomXml;
 
 class DependencyVulnerabilityCheckTest implements RewriteTest {
@@ -30,7 +41,7 @@ class DependencyVulnerabilityCheckTest implements RewriteTest {
     void detectsVulnerabilities() {
         rewriteRun(
           spec -> spec
-            .recipe(new DependencyVulnerabilityCheck(true, true, "UpgradeDelta"))
+            .recipe(new DependencyVulnerabilityCheck(true, true, "UpgradeDelta")
             .dataTable(UpgradesAndMigrations.Row.class, rows -> assertThat(rows)
               .contains(new UpgradesAndMigrations.Row("Vulnerabilities status by UpgradeDelta", 2, Patch.name(), "Vulnerabilities found."))),
           //language=xml
@@ -57,7 +68,7 @@ class DependencyVulnerabilityCheckTest implements RewriteTest {
     void detectsVulnerabilitySeverities() {
         rewriteRun(
           spec -> spec
-            .recipe(new DependencyVulnerabilityCheck(false, true, "Severity"))
+            .recipe(new DependencyVulnerabilityCheck(false, true, "Severity")
             .dataTable(UpgradesAndMigrations.Row.class, rows -> assertThat(rows)
               .contains(new UpgradesAndMigrations.Row("Vulnerabilities status by Severity", 1, High.name(), "Vulnerabilities found."))),
           //language=xml
@@ -84,7 +95,7 @@ class DependencyVulnerabilityCheckTest implements RewriteTest {
     void detectsRiscScore() {
         rewriteRun(
           spec -> spec
-            .recipe(new DependencyVulnerabilityCheck(false, true, "RiskScore"))
+            .recipe(new DependencyVulnerabilityCheck(false, true, "RiskScore")
             .dataTable(UpgradesAndMigrations.Row.class, rows -> assertThat(rows)
               .contains(new UpgradesAndMigrations.Row("Vulnerabilities status by RiskScore", 3, Low.name(), "Vulnerabilities found."))),
           //language=xml
@@ -106,4 +117,242 @@ class DependencyVulnerabilityCheckTest implements RewriteTest {
           )
         );
     }
+
+    @Test
+    void reportsHowManyFindingsWereFolded() {
+        rewriteRun(
+          spec -> spec
+            .recipe(new DependencyVulnerabilityCheck(false, true, "Severity", null, null))
+            .dataTable(UpgradesAndMigrations.Row.class, rows -> assertThat(rows).hasSize(1))
+            .dataTable(VulnerabilityFindings.Row.class, rows -> assertThat(rows)
+              .singleElement()
+              .satisfies(row -> {
+                  assertThat(row.getCard()).isEqualTo("Vulnerabilities status by Severity");
+                  assertThat(row.getSourcePath()).isEqualTo("pom.xml");
+                  assertThat(row.getFindings()).isPositive();
+              })),
+          //language=xml
+          pomXml(
+            """
+              <project>
+                <groupId>com.example</groupId>
+                <artifactId>example</artifactId>
+                <version>1.0-SNAPSHOT</version>
+                <dependencies>
+                  <dependency>
+                    <groupId>org.springframework</groupId>
+                    <artifactId>spring-web</artifactId>
+                    <version>6.2.7</version>
+                  </dependency>
+                </dependencies>
+              </project>
+              """
+          )
+        );
+    }
+
+    @Test
+    void perRepositoryReportsOnceForAllModules() {
+        rewriteRun(
+          spec -> spec
+            .recipe(new DependencyVulnerabilityCheck(false, true, "Severity", true, null))
+            .dataTable(UpgradesAndMigrations.Row.class, rows -> assertThat(rows)
+              .containsExactly(new UpgradesAndMigrations.Row("Vulnerabilities status by Severity", 1, High.name(), "Vulnerabilities found."))),
+          mavenProject("a",
+            //language=xml
+            pomXml(
+              """
+                <project>
+                  <groupId>com.example</groupId>
+                  <artifactId>a</artifactId>
+                  <version>1.0-SNAPSHOT</version>
+                  <dependencies>
+                    <dependency>
+                      <groupId>org.springframework</groupId>
+                      <artifactId>spring-web</artifactId>
+                      <version>6.2.7</version>
+                    </dependency>
+                  </dependencies>
+                </project>
+                """
+            )
+          ),
+          mavenProject("b",
+            //language=xml
+            pomXml(
+              """
+                <project>
+                  <groupId>com.example</groupId>
+                  <artifactId>b</artifactId>
+                  <version>1.0-SNAPSHOT</version>
+                  <dependencies>
+                    <dependency>
+                      <groupId>org.springframework</groupId>
+                      <artifactId>spring-web</artifactId>
+                      <version>6.2.7</version>
+                    </dependency>
+                  </dependencies>
+                </project>
+                """
+            )
+          )
+        );
+    }
+
+    @Test
+    void perRepositoryScansRuntimeDependencyAlsoUsedInTestScopeOfAnotherModule() {
+        rewriteRun(
+          spec -> spec
+            .recipe(new DependencyVulnerabilityCheck(false, true, "Severity", true, null))
+            .dataTable(UpgradesAndMigrations.Row.class, rows -> assertThat(rows)
+              .containsExactly(new UpgradesAndMigrations.Row("Vulnerabilities status by Severity", 1, High.name(), "Vulnerabilities found."))),
+          mavenProject("a",
+            //language=xml
+            pomXml(
+              """
+                <project>
+                  <groupId>com.example</groupId>
+                  <artifactId>a</artifactId>
+                  <version>1.0-SNAPSHOT</version>
+                  <dependencies>
+                    <dependency>
+                      <groupId>org.springframework</groupId>
+                      <artifactId>spring-web</artifactId>
+                      <version>6.2.7</version>
+                      <scope>test</scope>
+                    </dependency>
+                  </dependencies>
+                </project>
+                """
+            )
+          ),
+          mavenProject("b",
+            //language=xml
+            pomXml(
+              """
+                <project>
+                  <groupId>com.example</groupId>
+                  <artifactId>b</artifactId>
+                  <version>1.0-SNAPSHOT</version>
+                  <dependencies>
+                    <dependency>
+                      <groupId>org.springframework</groupId>
+                      <artifactId>spring-web</artifactId>
+                      <version>6.2.7</version>
+                    </dependency>
+                  </dependencies>
+                </project>
+                """
+            )
+          )
+        );
+    }
+
+    @Test
+    void matchesAgainstAnAdvisoryIndex(@TempDir Path tempDir) throws Exception {
+        Path index = tempDir.resolve("advisories.idx");
+        AdvisoryIndex.write(List.of(
+          new AdvisoryIndex.Advisory("org.springframework", "spring-web", "6.0.0", "6.2.8", null, "High", 0.2),
+          new AdvisoryIndex.Advisory("org.springframework", "spring-web", null, "6.1.0", null, "Critical", 0.9),
+          new AdvisoryIndex.Advisory("org.springframework", "spring-core", null, null, null, "Critical", 0.9)
+        ), index);
+
+        rewriteRun(
+          spec -> spec
+            .recipe(new DependencyVulnerabilityCheck(false, false, "Severity", null, index.toString()))
+            .dataTable(UpgradesAndMigrations.Row.class, rows -> assertThat(rows)
+              .containsExactly(new UpgradesAndMigrations.Row("Vulnerabilities status by Severity", 1, High.name(), "Vulnerabilities found.")))
+            .dataTable(VulnerabilityFindings.Row.class, rows -> assertThat(rows)
+              .containsExactly(new VulnerabilityFindings.Row("Vulnerabilities status by Severity", "pom.xml", 1))),
+          //language=xml
+          pomXml(
+            """
+              <project>
+                <groupId>com.example</groupId>
+                <artifactId>example</artifactId>
+                <version>1.0-SNAPSHOT</version>
+                <dependencies>
+                  <dependency>
+                    <groupId>org.springframework</groupId>
+                    <artifactId>spring-web</artifactId>
+                    <version>6.2.7</version>
+                  </dependency>
+                </dependencies>
+              </project>
+              """
+          )
+        );
+    }
+
+    @Test
+    void unfixableFindingOutranksFixableOneWhenOnlyFixableAreListed(@TempDir Path tempDir) throws Exception {
+        Path index = tempDir.resolve("advisories.idx");
+        AdvisoryIndex.write(List.of(
+          new AdvisoryIndex.Advisory("org.springframework", "spring-web", "6.0.0", "6.2.8", null, "High", 0.2),
+          new AdvisoryIndex.Advisory("org.springframework", "spring-web", "6.0.0", null, "6.2.9", "Moderate", 0.1)
+        ), index);
+
+        // NotFixable isn't one of the card's measures by default, so its row has an ordinal of -1
+        // and is kept over the Patch row, however the findings are ordered.
+        rewriteRun(
+          spec -> spec
+            .recipe(new DependencyVulnerabilityCheck(null, false, "UpgradeDelta", null, index.toString()))
+            .dataTable(UpgradesAndMigrations.Row.class, rows -> assertThat(rows)
+              .containsExactly(new UpgradesAndMigrations.Row("Vulnerabilities status by UpgradeDelta", -1,
+                NotFixable.getName(), "No fix available for at least 1 vulnerability."))),
+          //language=xml
+          pomXml(
+            """
+              <project>
+                <groupId>com.example</groupId>
+                <artifactId>example</artifactId>
+                <version>1.0-SNAPSHOT</version>
+                <dependencies>
+                  <dependency>
+                    <groupId>org.springframework</groupId>
+                    <artifactId>spring-web</artifactId>
+                    <version>6.2.7</version>
+                  </dependency>
+                </dependencies>
+              </project>
+              """
+          )
+        );
+    }
+
+    @Test
+    void reportsFindingsOnceWhenAnotherRecipeCausesASecondCycle(@TempDir Path tempDir) throws Exception {
+        Path index = tempDir.resolve("advisories.idx");
+        AdvisoryIndex.write(List.of(
+          new AdvisoryIndex.Advisory("org.springframework", "spring-web", "6.0.0", "6.2.8", null, "High", 0.2)
+        ), index);
+
+        var ctx = new InMemoryExecutionContext();
+        DataTableExecutionContextView.view(ctx).setDataTableStore(new InMemoryDataTableStore());
+        rewriteRun(
+          spec -> spec
+            .executionContext(ctx)
+            .recipes(new RequestSecondCycle(), new DependencyVulnerabilityCheck(false, false, "Severity", null, index.toString()))
+            .afterRecipe(run -> assertThat(ctx.getCycle()).isEqualTo(2))
+            .dataTable(VulnerabilityFindings.Row.class, rows -> assertThat(rows)
+              .containsExactly(new VulnerabilityFindings.Row("Vulnerabilities status by Severity", "pom.xml", 1))),
+          //language=xml
+          pomXml(
+            """
+              <project>
+                <groupId>com.example</groupId>
+                <artifactId>example</artifactId>
+                <version>1.0-SNAPSHOT</version>
+                <dependencies>
+                  <dependency>
+                    <groupId>org.springframework</groupId>
+                    <artifactId>spring-web</artifactId>
+                    <version>6.2.7</version>
+                  </dependency>
+                </dependencies>
+              </project>
+              """
+          )
+        );
+    }
 }
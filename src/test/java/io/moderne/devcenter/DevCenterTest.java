@@ -160,6 +160,56 @@ class DevCenterTest implements RewriteTest {
         assertThat(securityMeasures).contains("Zip slip");
     }
 
+    @Test
+    void discoversCardsInLargeRecipeTree() {
+        List<Recipe> branches = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            List<Recipe> leaves = new ArrayList<>();
+            for (int j = 0; j < 99; j++) {
+                leaves.add(composite("Leaf " + i + "." + j, List.of()));
+            }
+            leaves.add(new JavaVersionUpgrade(100 + i, null));
+            branches.add(composite("Branch " + i, leaves));
+        }
+
+        var devCenter = new DevCenter(composite("Root", branches));
+        assertThat(devCenter.getUpgradesAndMigrations())
+          .hasSize(100)
+          .first()
+          .extracting(DevCenter.Card::getName)
+          .isEqualTo("Move to Java 100");
+        assertThat(devCenter.getSecurity()).isNull();
+    }
+
+    private static Recipe composite(String name, List<Recipe> recipeList) {
+        return new Recipe() {
+            @Override
+            public String getDisplayName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return name + ".";
+            }
+
+            @Override
+            public List<Recipe> getRecipeList() {
+                return recipeList;
+            }
+        };
+    }
+
+    @Test
+    void specHashIsStableAcrossInstances() {
+        var devCenter = new DevCenter(starterDevCenter);
+        assertThat(devCenter.getSpecBytes()).isEqualTo(devCenter.getSpec().getBytes(StandardCharsets.UTF_8));
+        assertThat(devCenter.getSpecHash())
+          .hasSize(64)
+          .isEqualTo(new DevCenter(starterDevCenter).getSpecHash())
+          .isNotEqualTo(new DevCenter(starterSecurity).getSpecHash());
+    }
+
     @Test
     void getSpecOmitsSecurityWhenAbsent() throws Exception {
         //language=yaml
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter;
+
+import io.moderne.devcenter.table.MetricCardScans;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DataTableExecutionContextView;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryDataTableStore;
+import org.openrewrite.InMemoryExecutionContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InputDataTablesTest {
+
+    @Test
+    void findsTableCreatedAfterIndexWasBuilt() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        DataTableExecutionContextView.view(ctx).setDataTableStore(new InMemoryDataTableStore());
+
+        InputDataTables inputs = InputDataTables.get(ctx);
+        assertThat(inputs.tables(MetricCardScans.class.getName())).isEmpty();
+
+        new MetricCardScans(new JUnitJupiterUpgrade()).insertRow(ctx,
+          new MetricCardScans.Row("card", "table", 1, 1));
+
+        assertThat(InputDataTables.get(ctx)).isSameAs(inputs);
+        assertThat(inputs.tables(MetricCardScans.class.getName())).hasSize(1);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter;
+
+import io.moderne.devcenter.table.UpgradesAndMigrations;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemverRowBuilderTest {
+
+    @Test
+    void compilesComparatorsThatAreInvalidForTheTargetUpFront() {
+        // With a target of 9.0.0, the minor and patch ranges are invalid, which is only a
+        // problem for versions that aren't already a major version behind.
+        SemverRowBuilder builder = new SemverRowBuilder("Upgrade to Gradle 9", "9.0.0");
+        assertThat(builder.getRow("8.14.3")).isEqualTo(row(SemverMeasure.Major, "8.14.3"));
+        assertThat(builder.getRow("8.0.0")).isEqualTo(row(SemverMeasure.Major, "8.0.0"));
+    }
+
+    @Test
+    void classifiesAgainstTarget() {
+        SemverRowBuilder builder = new SemverRowBuilder("Upgrade to Gradle 9", "9.3.2");
+        assertThat(builder.getRow("8.5.0")).isEqualTo(row(SemverMeasure.Major, "8.5.0"));
+        assertThat(builder.getRow("9.1.0")).isEqualTo(row(SemverMeasure.Minor, "9.1.0"));
+        assertThat(builder.getRow("9.3.1")).isEqualTo(row(SemverMeasure.Patch, "9.3.1"));
+        assertThat(builder.getRow("9.3.2")).isEqualTo(row(SemverMeasure.Completed, "9.3.2"));
+        assertThat(builder.getRow("10.0.0")).isEqualTo(row(SemverMeasure.Completed, "10.0.0"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedVersions() {
+        SemverRowBuilder builder = new SemverRowBuilder("Upgrade to Gradle 9", "9.0.0");
+        int versions = SemverRowBuilder.MEMO_SIZE + 44;
+        for (int i = 0; i < versions; i++) {
+            builder.getRow("8.0." + i);
+        }
+        assertThat(builder.memo).hasSize(SemverRowBuilder.MEMO_SIZE)
+          .doesNotContainKey("8.0.43")
+          .containsKeys("8.0.44", "8.0." + (versions - 1));
+
+        // Using the eldest version keeps it, so the next one out is the version after it
+        builder.getRow("8.0.44");
+        builder.getRow("8.0." + versions);
+        assertThat(builder.memo).hasSize(SemverRowBuilder.MEMO_SIZE)
+          .containsKey("8.0.44")
+          .doesNotContainKey("8.0.45");
+
+        // An evicted version is classified again
+        assertThat(builder.getRow("8.0.0")).isEqualTo(row(SemverMeasure.Major, "8.0.0"));
+    }
+
+    @Test
+    void cardsKeepOneBuilder() {
+        AtomicReference<SemverRowBuilder> holder = new AtomicReference<>();
+        SemverRowBuilder builder = SemverRowBuilder.memoized(holder, "Upgrade to Gradle 9", "9.0.0");
+        assertThat(SemverRowBuilder.memoized(holder, "Upgrade to Gradle 9", "9.0.0")).isSameAs(builder);
+    }
+
+    private static UpgradesAndMigrations.Row row(SemverMeasure measure, String version) {
+        return new UpgradesAndMigrations.Row("Upgrade to Gradle 9", measure.ordinal(), measure.toString(), version);
+    }
+}
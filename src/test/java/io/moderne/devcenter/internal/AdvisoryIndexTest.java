@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.maven.tree.Version;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdvisoryIndexTest {
+
+    /**
+     * Where the hash of the first group and artifact is in an index.
+     */
+    private static final int FIRST_HASH = 4 + 2 + 4 + 4;
+
+    @Test
+    void encodedVersionsOrderTheWayMavenDoes() {
+        List<String> versions = List.of(
+          "0.9",
+          "1.0-alpha", "1.0-alpha1", "1.0-a2", "1.0-alpha10",
+          "1.0-beta1", "1.0-b2",
+          "1.0-M1", "1.0-milestone2",
+          "1.0-rc1", "1.0-cr2", "1.0-RC10",
+          "1.0-SNAPSHOT",
+          "1", "1.0", "1.0.0", "1.0.Final",
+          "1.0-sp1", "1.0-sp2",
+          "1.0-jre",
+          "1.0.0.1", "1.0.1", "1.01.1",
+          "1.2.3.4.5", "1.2.3.4.6", "1.2.3.5",
+          "1.2048", "1.2049", "1.4095.0", "1.4096.0", "1.100000",
+          "2.0", "4096", "4097", "20230101", "20230102"
+        );
+        for (String v : versions) {
+            for (String o : versions) {
+                assertThat(Long.signum(Long.compare(AdvisoryIndex.encodeVersion(v), AdvisoryIndex.encodeVersion(o))))
+                  .as("%s compared to %s", v, o)
+                  .isEqualTo(Integer.signum(new Version(v).compareTo(new Version(o))));
+            }
+        }
+    }
+
+    @Test
+    void versionsAreNonNegative() {
+        assertThat(AdvisoryIndex.encodeVersion("2147483647.2147483647.2147483647")).isNotNegative();
+        assertThat(AdvisoryIndex.encodeVersion("")).isNotNegative();
+    }
+
+    @Test
+    void qualifierNumberDecidesWhetherVersionIsFixed(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("advisories.idx");
+        AdvisoryIndex.write(List.of(
+          new AdvisoryIndex.Advisory("org.example", "lib", null, "2.0.0-RC2", null, "High", null)
+        ), file);
+        AdvisoryIndex index = AdvisoryIndex.open(file);
+
+        int groupArtifact = index.find("org.example", "lib");
+        assertThat(index.affects(index.firstAdvisory(groupArtifact), AdvisoryIndex.encodeVersion("2.0.0-RC1"))).isTrue();
+        assertThat(index.affects(index.firstAdvisory(groupArtifact), AdvisoryIndex.encodeVersion("2.0.0-RC2"))).isFalse();
+    }
+
+    @Test
+    void find(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("advisories.idx");
+        AdvisoryIndex.write(List.of(
+          advisory("org.example", "lib", "1.0"),
+          advisory("org.example", "other", "2.0")
+        ), file);
+        AdvisoryIndex index = AdvisoryIndex.open(file);
+
+        assertThat(fixedVersion(index, "org.example", "lib")).isEqualTo("1.0");
+        assertThat(fixedVersion(index, "org.example", "other")).isEqualTo("2.0");
+        assertThat(index.find("org.example", "missing")).isEqualTo(-1);
+        assertThat(index.find("org.example.lib", "")).isEqualTo(-1);
+    }
+
+    @Test
+    void findNonAsciiKeys(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("advisories.idx");
+        AdvisoryIndex.write(List.of(
+          advisory("org.exämple", "lib", "1.0"),
+          advisory("org.example", "lib", "2.0"),
+          advisory("org.example", "图书馆", "3.0")
+        ), file);
+        AdvisoryIndex index = AdvisoryIndex.open(file);
+
+        assertThat(fixedVersion(index, "org.exämple", "lib")).isEqualTo("1.0");
+        assertThat(fixedVersion(index, "org.example", "lib")).isEqualTo("2.0");
+        assertThat(fixedVersion(index, "org.example", "图书馆")).isEqualTo("3.0");
+        assertThat(index.find("org.exàmple", "lib")).isEqualTo(-1);
+        assertThat(index.find("org.example", "图书")).isEqualTo(-1);
+    }
+
+    @Test
+    void findAmongCollidingHashes(@TempDir Path tempDir) throws IOException {
+        // An ASCII and a non-ASCII key of the same length in bytes, but not in characters
+        Path first = collidingIndex(tempDir.resolve("first.idx"), "ab");
+        assertThat(fixedVersion(AdvisoryIndex.open(first), "g", "ab")).isEqualTo("1.0");
+        assertThat(AdvisoryIndex.open(first).find("g", "é")).isEqualTo(-1);
+
+        Path second = collidingIndex(tempDir.resolve("second.idx"), "é");
+        assertThat(fixedVersion(AdvisoryIndex.open(second), "g", "é")).isEqualTo("2.0");
+        assertThat(AdvisoryIndex.open(second).find("g", "ab")).isEqualTo(-1);
+    }
+
+    /**
+     * Writes an index of {@code g:ab} and {@code g:é}, and then gives both of them the hash of
+     * one of them, so whichever comes first, {@code find} has to compare keys to tell them apart.
+     */
+    private static Path collidingIndex(Path file, String artifactId) throws IOException {
+        AdvisoryIndex.write(List.of(
+          advisory("g", "ab", "1.0"),
+          advisory("g", "é", "2.0")
+        ), file);
+        long hash = AdvisoryIndex.hash("g", artifactId);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            for (int i = 0; i < 2; i++) {
+                raf.seek(FIRST_HASH + i * 8);
+                raf.writeLong(hash);
+            }
+        }
+        return file;
+    }
+
+    private static AdvisoryIndex.Advisory advisory(String groupId, String artifactId, String fixedVersion) {
+        return new AdvisoryIndex.Advisory(groupId, artifactId, null, fixedVersion, null, "High", null);
+    }
+
+    private static String fixedVersion(AdvisoryIndex index, String groupId, String artifactId) {
+        int groupArtifact = index.find(groupId, artifactId);
+        assertThat(groupArtifact).as("%s:%s", groupId, artifactId).isNotEqualTo(-1);
+        return index.getFixedVersion(index.firstAdvisory(groupArtifact));
+    }
+}
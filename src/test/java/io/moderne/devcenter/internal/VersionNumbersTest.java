@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.openrewrite.java.dependencies.internal.VersionParser;
+
+import static io.moderne.devcenter.internal.VersionNumbers.NONE;
+import static io.moderne.devcenter.internal.VersionNumbers.of;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class VersionNumbersTest {
+
+    @Test
+    void packedVersionsOrderLikeTheirParts() {
+        assertThat(VersionNumbers.major(of(3, 12))).isEqualTo(3);
+        assertThat(VersionNumbers.minor(of(3, 12))).isEqualTo(12);
+        assertThat(of(3, 9)).isLessThan(of(3, 10));
+        assertThat(of(1, Integer.MAX_VALUE)).isLessThan(of(2, 0));
+    }
+
+    @Test
+    void find() {
+        assertThat(VersionNumbers.find("2.13.4", false)).isEqualTo(of(2, 13));
+        assertThat(VersionNumbers.find("go1.22", false)).isEqualTo(of(1, 22));
+        assertThat(VersionNumbers.find("17", false)).isEqualTo(of(17, 0));
+        assertThat(VersionNumbers.find("v03.007", false)).isEqualTo(of(3, 7));
+        assertThat(VersionNumbers.find("99999999999.1", false)).isEqualTo(of(Integer.MAX_VALUE, 1));
+        assertThat(VersionNumbers.find("latest", false)).isEqualTo(NONE);
+        assertThat(VersionNumbers.find("", false)).isEqualTo(NONE);
+    }
+
+    @Test
+    void findWithMinor() {
+        assertThat(VersionNumbers.find("net8.0", true)).isEqualTo(of(8, 0));
+        assertThat(VersionNumbers.find("17", true)).isEqualTo(NONE);
+        assertThat(VersionNumbers.find("17.", true)).isEqualTo(NONE);
+        // The major alone doesn't count, so the search moves on past all of its digits
+        assertThat(VersionNumbers.find("python 3 or 3.11", true)).isEqualTo(of(3, 11));
+        assertThat(VersionNumbers.find("12 and 3.4", true)).isEqualTo(of(3, 4));
+    }
+
+    @Test
+    void findAfterOperator() {
+        String[] lowerBounds = {">=", "^", "~"};
+        assertThat(VersionNumbers.findAfterOperator(">=3.8,<4", lowerBounds, true)).isEqualTo(of(3, 8));
+        assertThat(VersionNumbers.findAfterOperator("^18.0.0", lowerBounds, false)).isEqualTo(of(18, 0));
+        assertThat(VersionNumbers.findAfterOperator("~ v16", lowerBounds, false)).isEqualTo(of(16, 0));
+        assertThat(VersionNumbers.findAfterOperator("<4, >= 3.10", lowerBounds, true)).isEqualTo(of(3, 10));
+        assertThat(VersionNumbers.findAfterOperator(">=3, >=3.9", lowerBounds, true)).isEqualTo(of(3, 9));
+        assertThat(VersionNumbers.findAfterOperator("<4", lowerBounds, false)).isEqualTo(NONE);
+        assertThat(VersionNumbers.findAfterOperator("3.9", lowerBounds, false)).isEqualTo(NONE);
+        assertThat(VersionNumbers.findAfterOperator(">=", lowerBounds, false)).isEqualTo(NONE);
+    }
+
+    @Test
+    void parse() {
+        assertThat(VersionNumbers.parse("net8.0", 3)).isEqualTo(of(8, 0));
+        assertThat(VersionNumbers.parse("netcoreapp3.1", 10)).isEqualTo(of(3, 1));
+        assertThat(VersionNumbers.parse("net8.0-windows", 3)).isEqualTo(NONE);
+        assertThat(VersionNumbers.parse("net48", 3)).isEqualTo(NONE);
+        assertThat(VersionNumbers.parse("net8.0", 2)).isEqualTo(NONE);
+        assertThat(VersionNumbers.parse("net", 3)).isEqualTo(NONE);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+      "1.2.3 | 2.0.0 | 0",
+      "1.2.3 | 1.3.0 | 1",
+      "1.2.3 | 1.2.4 | 2",
+      "1.2.3 | 1.2.3 | -1",
+      // Leading zeros
+      "1.02.3 | 1.2.4 | 2",
+      "01.2 | 1.2 | -1",
+      "1.0 | 1.00 | -1",
+      // Qualifiers
+      "1.2.3-RC1 | 1.2.3-RC2 | 4",
+      "1.2.3-RC1 | 1.2.3-M1 | -1",
+      "1.2.RELEASE | 1.2.3 | 2",
+      "1.2.3 | 1.2.RELEASE | 2",
+      "1.2.Final | 1.2.RELEASE | -1",
+      "1.0a1 | 1.0a2 | 3",
+      "v1.2 | 1.2 | 0",
+      "2.13.4_2 | 2.13.4+3 | 3",
+      // Different lengths
+      "1.2 | 1.2.1 | -1",
+      "1.2.3.4 | 1.2.3 | -1",
+      "1.2.3 | 1.2.3-RC1 | -1",
+      "1.2 | 1.3.1 | 1",
+      "'' | 1.2 | -1"
+    })
+    void firstDifferingPart(String current, String other, int part) {
+        assertThat(VersionNumbers.firstDifferingPart(current, other)).isEqualTo(part);
+        assertThat(VersionNumbers.firstDifferingPart(current, other)).isEqualTo(firstDifferingPartOfParsed(current, other));
+    }
+
+    @Test
+    void tiersClassifyAtTheirBoundaries() {
+        VersionNumbers.Tiers<String> tiers = new VersionNumbers.Tiers<>(
+          new long[]{of(1, 0), of(1, 5), of(2, 0)},
+          new String[]{"old", "mid", "new"});
+        assertThat(tiers.classify(of(0, 9))).isEqualTo("old");
+        assertThat(tiers.classify(of(1, 0))).isEqualTo("old");
+        assertThat(tiers.classify(of(1, 4))).isEqualTo("old");
+        assertThat(tiers.classify(of(1, 5))).isEqualTo("mid");
+        assertThat(tiers.classify(of(1, Integer.MAX_VALUE))).isEqualTo("mid");
+        assertThat(tiers.classify(of(2, 0))).isEqualTo("new");
+        assertThat(tiers.classify(of(Integer.MAX_VALUE, 0))).isEqualTo("new");
+    }
+
+    @Test
+    void singleTier() {
+        VersionNumbers.Tiers<String> tiers = new VersionNumbers.Tiers<>(new long[]{of(3, 0)}, new String[]{"only"});
+        assertThat(tiers.classify(of(2, 0))).isEqualTo("only");
+        assertThat(tiers.classify(of(4, 0))).isEqualTo("only");
+    }
+
+    @Test
+    void tiersLeaveOutTheCompletedMeasure() {
+        String[] measures = {"old", "new", "done"};
+        VersionNumbers.Tiers<String> tiers = VersionNumbers.tiers(measures, "done",
+          m -> "old".equals(m) ? of(1, 0) : of(2, 0));
+        assertThat(tiers.classify(of(1, 9))).isEqualTo("old");
+        assertThat(tiers.classify(of(9, 0))).isEqualTo("new");
+    }
+
+    @Test
+    void everyTierNeedsAThresholdAndAMeasure() {
+        assertThatIllegalArgumentException().isThrownBy(() ->
+          new VersionNumbers.Tiers<>(new long[]{of(1, 0)}, new String[]{"old", "new"}));
+        assertThatIllegalArgumentException().isThrownBy(() ->
+          new VersionNumbers.Tiers<>(new long[0], new String[0]));
+    }
+
+    /**
+     * How versions were compared before {@link VersionNumbers#firstDifferingPart(String, String)},
+     * through the numeric parts of {@link VersionParser}.
+     */
+    private static int firstDifferingPartOfParsed(String current, String other) {
+        VersionParser parser = new VersionParser();
+        Long[] currentParts = parser.transform(current).getNumericParts();
+        Long[] otherParts = parser.transform(other).getNumericParts();
+        for (int i = 0; i < currentParts.length && i < otherParts.length; i++) {
+            if ((currentParts[i] == null && otherParts[i] != null) ||
+                (currentParts[i] != null && !currentParts[i].equals(otherParts[i]))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
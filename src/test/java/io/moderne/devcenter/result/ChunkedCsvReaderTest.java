@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.result;
+
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+import com.univocity.parsers.csv.UnescapedQuoteHandling;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkedCsvReaderTest {
+
+    @Test
+    void parallelReadPreservesFileOrder() {
+        StringBuilder csv = new StringBuilder("name,value\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            // Every tenth value spans a line break inside quotes, which must not be split.
+            String value = i % 10 == 0 ? "line\nbreak " + i : "value " + i;
+            csv.append("row").append(i).append(",\"").append(value).append("\"\n");
+            if (i % 7 == 0) {
+                csv.append('\n');
+            }
+            expected.add("row" + i + "=" + value);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<String> rows = new ArrayList<>();
+            new ChunkedCsvReader<String, String>(
+              header -> header,
+              (headers, row) -> row[0] + "=" + row[1],
+              rows::add,
+              executor,
+              4,
+              64
+            ).read(new StringReader(csv.toString()));
+
+            assertThat(rows).containsExactlyElementsOf(expected);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void headerOnly() {
+        List<String> rows = new ArrayList<>();
+        new ChunkedCsvReader<String, String>(header -> header, (headers, row) -> row[0], rows::add)
+          .read(new StringReader("name,value\n"));
+        assertThat(rows).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\n", "\r\n", "\r"})
+    void malformedInputIsSplitLikeTheSequentialParse(String lineSeparator) {
+        String csv = String.join(lineSeparator,
+          "name,value",
+          "stray,ab\"c",
+          "\"quoted\",\"has \"\"escaped\"\" quotes\"",
+          "unescaped,\"a\"b" + lineSeparator + "still quoted\"",
+          "  \"leading space\",x",
+          "trailing,\"closed\" ",
+          "quote\"in\"middle,\"multi" + lineSeparator + "line\"",
+          "last,row") + lineSeparator;
+
+        CsvParserSettings settings = new CsvParserSettings();
+        settings.setLineSeparatorDetectionEnabled(true);
+        settings.setUnescapedQuoteHandling(UnescapedQuoteHandling.STOP_AT_CLOSING_QUOTE);
+        List<String> sequential = new ArrayList<>();
+        List<String[]> all = new CsvParser(settings).parseAll(new StringReader(csv));
+        for (String[] row : all.subList(1, all.size())) {
+            sequential.add(String.join("|", row));
+        }
+
+        for (int chunkSize = 1; chunkSize < 16; chunkSize++) {
+            List<String> chunked = new ArrayList<>();
+            new ChunkedCsvReader<String, String>(
+              header -> header,
+              (headers, row) -> String.join("|", row),
+              chunked::add,
+              Runnable::run,
+              1,
+              chunkSize
+            ).read(new StringReader(csv));
+
+            assertThat(chunked).as("chunk size %d", chunkSize).containsExactlyElementsOf(sequential);
+        }
+    }
+}
@@ -15,21 +15,33 @@
  */
 package io.moderne.devcenter.result;
 
+import io.moderne.devcenter.AggregationFunction;
+import io.moderne.devcenter.Bucket;
+import io.moderne.devcenter.BucketedHistogramCard;
+import io.moderne.devcenter.BucketedMetricCard;
 import io.moderne.devcenter.DevCenter;
+import io.moderne.devcenter.MetricAggregate;
 import io.moderne.devcenter.SemverMeasure;
 import io.moderne.organizations.Organization;
 import io.moderne.organizations.OrganizationReader;
+import io.moderne.organizations.RepositoryId;
 import org.junit.jupiter.api.Test;
 import org.openrewrite.config.Environment;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
 import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.assertj.core.api.Assertions.withPercentage;
 
 class DevCenterResultReducerTest {
     Environment environment = Environment.builder()
@@ -62,6 +74,202 @@ class DevCenterResultReducerTest {
         assertThat(orgsChecked).containsExactly("ALL", "Default");
     }
 
+    @Test
+    void reduceAllMatchesReduce() {
+        DevCenterResultReducer reducer = DevCenterResultReducer.fromDataTables(
+          devCenter,
+          root,
+          new InputStreamReader(requireNonNull(getClass().getResourceAsStream(
+            "/UpgradesAndMigrations-Default.csv"))),
+          new InputStreamReader(requireNonNull(getClass().getResourceAsStream(
+            "/SecurityIssues-Default.csv")))
+        );
+
+        DevCenterResultIndex index = reducer.reduceAll();
+        root.forEachOrganization(org -> {
+            DevCenterResult result = index.get(org);
+            hasSpringBoot35Results(result);
+            hasSecurityResults(result);
+        });
+    }
+
+    @Test
+    void reduceAllCountsRepositoryInSeveralChildrenOnce() {
+        Organization<Object> overlapping = new OrganizationReader<>().fromCsv(new ByteArrayInputStream("""
+          cloneUrl,branch,org1,org2
+          https://github.com/finos/spring-bot,spring-bot-master,A,ALL
+          https://github.com/finos/spring-bot,spring-bot-master,B,ALL
+          https://github.com/finos/symphony-wdk,master,B,ALL
+          """.getBytes(StandardCharsets.UTF_8)));
+
+        DevCenterResultReducer reducer = DevCenterResultReducer.fromDataTables(
+          devCenter,
+          overlapping,
+          new StringReader("""
+            repositoryOrigin,repositoryPath,repositoryBranch,card,ordinal,value,currentMinimumVersion
+            github.com,finos/spring-bot,spring-bot-master,Move to Spring Boot 4.1,0,Major,3.5.0
+            github.com,finos/symphony-wdk,master,Move to Spring Boot 4.1,0,Major,3.4.0
+            """),
+          new StringReader("")
+        );
+
+        DevCenterResultIndex index = reducer.reduceAll();
+        overlapping.forEachOrganization(org -> assertThat(counts(index.get(org)))
+          .isEqualTo(counts(reducer.reduce(org))));
+        index.get(overlapping).forEach(
+          devCenter.getCard("Move to Spring Boot 4.1"),
+          (measure, count) -> assertThat(count).isEqualTo(2));
+    }
+
+    @Test
+    void ingestionLooksUpEachRowOnce() {
+        int repositories = 1_000;
+        StringBuilder repos = new StringBuilder("cloneUrl,branch,org1,org2\n");
+        StringBuilder upgrades = new StringBuilder("repositoryOrigin,repositoryPath,repositoryBranch,card,ordinal,value,currentMinimumVersion\n");
+        for (int i = 0; i < repositories; i++) {
+            repos.append("https://github.com/org/repo").append(i).append(",main,Default,ALL\n");
+            upgrades.append("github.com,org/repo").append(i).append(",main,Move to Spring Boot 4.1,")
+              .append(i % 4).append(",,3.5.0\n");
+        }
+        Organization<RepositoryResult> results = new OrganizationReader<>().fromCsv(
+            new ByteArrayInputStream(repos.toString().getBytes(StandardCharsets.UTF_8)))
+          .rematerialize((org, repo) -> new RepositoryResult());
+
+        // Every repository is indexed once, with its result in each organization that contains it,
+        Map<RepositoryId, List<RepositoryResult>> index = DevCenterResultReducer.repositoryResults(results);
+        assertThat(index).hasSize(repositories);
+        assertThat(index.values()).allSatisfy(r -> assertThat(r).isNotEmpty());
+
+        // and then each row is resolved by a single lookup rather than a walk of the organization.
+        int[] lookups = new int[1];
+        Map<RepositoryId, List<RepositoryResult>> counting = new HashMap<>(index) {
+            @Override
+            public List<RepositoryResult> get(Object key) {
+                lookups[0]++;
+                return super.get(key);
+            }
+
+            @Override
+            public List<RepositoryResult> getOrDefault(Object key, List<RepositoryResult> defaultValue) {
+                lookups[0]++;
+                return super.getOrDefault(key, defaultValue);
+            }
+        };
+        new UpgradesAndMigrationsReader(devCenter, counting).read(new StringReader(upgrades.toString()));
+        assertThat(lookups[0]).isEqualTo(repositories);
+
+        new DevCenterResultReducer(devCenter, results).reduce(results).forEach(
+          devCenter.getCard("Move to Spring Boot 4.1"),
+          (measure, count) -> assertThat(count).isEqualTo(repositories / 4));
+    }
+
+    @Test
+    void applyDelta() {
+        DevCenterResultReducer reducer = DevCenterResultReducer.fromDataTables(
+          devCenter,
+          root,
+          new InputStreamReader(requireNonNull(getClass().getResourceAsStream(
+            "/UpgradesAndMigrations-Default.csv"))),
+          new InputStreamReader(requireNonNull(getClass().getResourceAsStream(
+            "/SecurityIssues-Default.csv")))
+        );
+        hasSpringBoot35Results(reducer.reduce(root));
+
+        reducer.applyDelta(
+          List.of(new RepositoryId("github.com", "finos/spring-bot", "spring-bot-master")),
+          new StringReader("""
+            repositoryOrigin,repositoryPath,repositoryBranch,card,ordinal,value,currentMinimumVersion
+            github.com,finos/spring-bot,spring-bot-master,Move to Spring Boot 4.1,3,Completed,4.1.0
+            github.com,finos/symphony-wdk,master,Move to Spring Boot 4.1,0,Major,2.7.0
+            """),
+          null
+        );
+
+        root.forEachOrganization(org -> {
+            DevCenterResult result = reducer.reduce(org);
+            result.forEach(devCenter.getCard("Move to Spring Boot 4.1"), (measure, count) ->
+              assertThat(count)
+                .describedAs(measure.getName())
+                .isEqualTo((int) switch (measure) {
+                    case SemverMeasure.Minor, SemverMeasure.Completed -> 2;
+                    default -> fail("Unexpected measure");
+                }));
+            hasSecurityResults(result);
+        });
+    }
+
+    @Test
+    void metricAggregatesMergeAcrossRepositories() {
+        var card = new BucketedMetricCard(
+          "io.moderne.prethink.table.ClassQualityMetrics",
+          "Average class cohesion",
+          "lcom4",
+          AggregationFunction.AVERAGE,
+          new Bucket[]{new Bucket("LOW", 10), new Bucket("HIGH", 0)},
+          true,
+          null);
+        var metricDevCenter = new DevCenter(card);
+
+        var doxia = new MetricAggregate();
+        List.of(1.0, 2.0, 3.0).forEach(doxia::add);
+        var documentDb = new MetricAggregate();
+        List.of(10.0, 20.0, 30.0).forEach(documentDb::add);
+
+        DevCenterResultReducer reducer = DevCenterResultReducer.fromDataTables(
+          metricDevCenter,
+          root,
+          null,
+          null,
+          new StringReader("""
+            repositoryOrigin,repositoryPath,repositoryBranch,card,count,sum,min,max,quantileSketch
+            github.com,apache/maven-doxia,master,Average class cohesion,3,%s,1,3,%s
+            github.com,aws/amazon-documentdb-jdbc-driver,develop,Average class cohesion,3,%s,10,30,%s
+            """.formatted(doxia.getSum(), doxia.serializeSketch(), documentDb.getSum(), documentDb.serializeSketch()))
+        );
+
+        root.forEachOrganization(org -> {
+            MetricAggregate metric = reducer.reduce(org).getMetricAggregatesByCard()
+              .get(metricDevCenter.getCard("Average class cohesion"));
+            assertThat(metric.getCount()).isEqualTo(6);
+            assertThat(metric.getAverage()).isEqualTo(11.0);
+            assertThat(metric.getMin()).isEqualTo(1.0);
+            assertThat(metric.getMax()).isEqualTo(30.0);
+            assertThat(metric.quantile(0.5)).isCloseTo(3.0, withPercentage(1));
+        });
+    }
+
+    @Test
+    void bucketCountsAreSummedAcrossRepositories() {
+        var card = new BucketedHistogramCard(
+          "io.moderne.prethink.table.ClassQualityMetrics",
+          "Class cohesion",
+          "lcom4",
+          new Bucket[]{new Bucket("LOW", 10), new Bucket("HIGH", 0)},
+          null);
+        var histogramDevCenter = new DevCenter(card);
+
+        DevCenterResultReducer reducer = DevCenterResultReducer.fromDataTables(
+          histogramDevCenter,
+          root,
+          null,
+          null,
+          null,
+          new StringReader("""
+            repositoryOrigin,repositoryPath,repositoryBranch,card,ordinal,value,count
+            github.com,apache/maven-doxia,master,Class cohesion,0,LOW,2
+            github.com,apache/maven-doxia,master,Class cohesion,1,HIGH,5
+            github.com,aws/amazon-documentdb-jdbc-driver,develop,Class cohesion,1,HIGH,3
+            """)
+        );
+
+        root.forEachOrganization(org -> {
+            DevCenterResult.ByMeasure byMeasure = reducer.reduce(org).getResultsByCard()
+              .get(histogramDevCenter.getCard("Class cohesion"));
+            assertThat(byMeasure.getCount(0)).isEqualTo(2);
+            assertThat(byMeasure.getCount(1)).isEqualTo(8);
+        });
+    }
+
     @Test
     void emptyDataTable() {
         DevCenterResultReducer reducer = DevCenterResultReducer.fromDataTables(
@@ -110,6 +318,13 @@ class DevCenterResultReducerTest {
           .containsExactly("Move to Spring Boot 4.1");
     }
 
+    private static Map<String, Map<String, Integer>> counts(DevCenterResult result) {
+        Map<String, Map<String, Integer>> counts = new HashMap<>();
+        result.getResultsByCard().forEach((card, byMeasure) -> byMeasure.getMeasures().forEach((measure, count) ->
+          counts.computeIfAbsent(card.getName(), k -> new HashMap<>()).put(measure.getName(), count)));
+        return counts;
+    }
+
     private void hasSecurityResults(DevCenterResult result) {
         result.forEach(devCenter.getSecurity(), (measure, count) -> {
             assertThat(measure.getName()).isEqualTo("Remediate OWASP A08:2021 Software and data integrity failures");
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.moderne.devcenter.result;
+
+import io.moderne.devcenter.AggregationFunction;
+import io.moderne.devcenter.Bucket;
+import io.moderne.devcenter.BucketedHistogramCard;
+import io.moderne.devcenter.BucketedMetricCard;
+import io.moderne.devcenter.DevCenter;
+import io.moderne.organizations.Organization;
+import io.moderne.organizations.OrganizationReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.config.Environment;
+
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DevCenterResultSnapshotTest {
+    Environment environment = Environment.builder()
+      .scanRuntimeClasspath("org.openrewrite")
+      .scanYamlResources()
+      .build();
+    DevCenter devCenter = new DevCenter(environment.activateRecipes("io.moderne.devcenter.DevCenterStarter"));
+    Organization<Object> root = new OrganizationReader<>().fromCsv(requireNonNull(getClass()
+      .getResourceAsStream("/repos-Default.csv")));
+
+    @Test
+    void roundTrip(@TempDir Path tempDir) {
+        DevCenterResultReducer reducer = fromDataTables();
+        Path snapshot = tempDir.resolve("results.snapshot");
+        reducer.writeSnapshot(snapshot);
+
+        DevCenterResultReducer restored = DevCenterResultReducer.fromSnapshot(devCenter, root, snapshot);
+        root.forEachOrganization(org -> assertThat(counts(restored.reduce(org)))
+          .isNotEmpty()
+          .isEqualTo(counts(reducer.reduce(org))));
+    }
+
+    @Test
+    void rejectsSnapshotForDifferentSpec(@TempDir Path tempDir) {
+        Path snapshot = tempDir.resolve("results.snapshot");
+        fromDataTables().writeSnapshot(snapshot);
+
+        DevCenter security = new DevCenter(environment.activateRecipes("io.moderne.devcenter.SecurityStarter"));
+        assertThatThrownBy(() -> DevCenterResultReducer.fromSnapshot(security, root, snapshot))
+          .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void roundTripCardsWithMoreMeasuresThanFitInAByte(@TempDir Path tempDir) {
+        Bucket[] buckets = new Bucket[300];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket("B" + i, buckets.length - i);
+        }
+
+        var metricCard = new BucketedMetricCard(
+          "io.moderne.prethink.table.ClassQualityMetrics", "Class size", "lines",
+          AggregationFunction.MAX, buckets, null, null);
+        var metricDevCenter = new DevCenter(metricCard);
+        DevCenterResultReducer metrics = DevCenterResultReducer.fromDataTables(
+          metricDevCenter,
+          root,
+          new StringReader("""
+            repositoryOrigin,repositoryPath,repositoryBranch,card,ordinal,value,currentMinimumVersion
+            github.com,apache/maven-doxia,master,Class size,299,B299,
+            github.com,aws/amazon-documentdb-jdbc-driver,develop,Class size,128,B128,
+            github.com,finos/messageml-utils,main,Class size,0,B0,
+            """),
+          null
+        );
+        assertRoundTrips(metricDevCenter, metrics, tempDir.resolve("metric.snapshot"));
+
+        var histogramCard = new BucketedHistogramCard(
+          "io.moderne.prethink.table.ClassQualityMetrics", "Class sizes", "lines", buckets, null);
+        var histogramDevCenter = new DevCenter(histogramCard);
+        DevCenterResultReducer histograms = DevCenterResultReducer.fromDataTables(
+          histogramDevCenter,
+          root,
+          null,
+          null,
+          null,
+          new StringReader("""
+            repositoryOrigin,repositoryPath,repositoryBranch,card,ordinal,value,count
+            github.com,apache/maven-doxia,master,Class sizes,299,B299,2
+            github.com,apache/maven-doxia,master,Class sizes,255,B255,5
+            github.com,aws/amazon-documentdb-jdbc-driver,develop,Class sizes,127,B127,3
+            """)
+        );
+        assertRoundTrips(histogramDevCenter, histograms, tempDir.resolve("histogram.snapshot"));
+    }
+
+    private void assertRoundTrips(DevCenter devCenter, DevCenterResultReducer reducer, Path snapshot) {
+        reducer.writeSnapshot(snapshot);
+        DevCenterResultReducer restored = DevCenterResultReducer.fromSnapshot(devCenter, root, snapshot);
+        root.forEachOrganization(org -> assertThat(counts(restored.reduce(org)))
+          .isNotEmpty()
+          .isEqualTo(counts(reducer.reduce(org))));
+    }
+
+    private DevCenterResultReducer fromDataTables() {
+        return DevCenterResultReducer.fromDataTables(
+          devCenter,
+          root,
+          new InputStreamReader(requireNonNull(getClass().getResourceAsStream(
+            "/UpgradesAndMigrations-Default.csv"))),
+          new InputStreamReader(requireNonNull(getClass().getResourceAsStream(
+            "/SecurityIssues-Default.csv")))
+        );
+    }
+
+    private static Map<String, Map<String, Integer>> counts(DevCenterResult result) {
+        Map<String, Map<String, Integer>> counts = new HashMap<>();
+        result.getResultsByCard().forEach((card, byMeasure) -> byMeasure.getMeasures().forEach((measure, count) ->
+          counts.computeIfAbsent(card.getName(), k -> new HashMap<>()).put(measure.getName(), count)));
+        return counts;
+    }
+}